@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+// Детерминированные данные: одинаковые между запусками, чтобы результаты разных версий можно было сравнивать
+final class Fixtures {
+    static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return new User(id, "User " + id, "user" + id + "@email.com");
+    }
+
+    static Item item(long id, Long requestId) {
+        return new Item(id, "Item " + id, "Description of item " + id, true, 1L, requestId);
+    }
+
+    static Booking booking(long id) {
+        LocalDateTime start = START.plusHours(id);
+        return new Booking(id, start, start.plusDays(1), item(id % 100 + 1, null), user(id % 50 + 2),
+                BookingStatus.APPROVED);
+    }
+
+    static ItemBookingDto itemBooking(long itemId, long id, LocalDateTime start) {
+        return new ItemBookingDto(itemId, id, itemId % 50 + 2, start, start.plusDays(1));
+    }
+
+    static Comment comment(long id, Item item) {
+        return new Comment(id, "Comment " + id + " about " + item.getName(), item, user(id % 50 + 2), START.plusMinutes(id));
+    }
+
+    static ItemRequest request(long id) {
+        return new ItemRequest(id, "Need item " + id, user(id % 50 + 2), START.minusDays(id));
+    }
+}
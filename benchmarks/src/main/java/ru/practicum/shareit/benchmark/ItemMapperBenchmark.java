@@ -0,0 +1,43 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemMapperBenchmark {
+    @Param({"0", "10", "100"})
+    private int comments;
+
+    private Item item;
+    private ItemWithBookingsDto.BookingShortDto lastBooking;
+    private ItemWithBookingsDto.BookingShortDto nextBooking;
+    private List<Comment> itemComments;
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.item(1, null);
+        lastBooking = ItemMapper.toBookingShortDto(Fixtures.itemBooking(1, 1, Fixtures.START.minusDays(2)));
+        nextBooking = ItemMapper.toBookingShortDto(Fixtures.itemBooking(1, 2, Fixtures.START.plusDays(2)));
+        itemComments = new ArrayList<>(comments);
+        for (long id = 1; id <= comments; id++) {
+            itemComments.add(Fixtures.comment(id, item));
+        }
+    }
+
+    @Benchmark
+    public ItemWithBookingsDto toItemWithBookingsDto() {
+        return ItemMapper.toItemWithBookingsDto(item, lastBooking, nextBooking, itemComments);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestServiceImpl;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ItemRequestServiceImpl.enrichRequestsWithItems: группировка откликов по запросам и сборка DTO
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemRequestServiceBenchmark {
+    private static final MethodHandle ENRICH_REQUESTS_WITH_ITEMS =
+            Stubs.privateMethod(ItemRequestServiceImpl.class, "enrichRequestsWithItems", List.class, List.class);
+
+    @Param({"10", "100", "1000"})
+    private int requests;
+
+    @Param({"0", "3"})
+    private int itemsPerRequest;
+
+    private ItemRequestServiceImpl service;
+    private List<ItemRequest> itemRequests;
+
+    @Setup
+    public void setUp() {
+        itemRequests = new ArrayList<>(requests);
+        List<Item> items = new ArrayList<>(requests * itemsPerRequest);
+        long itemId = 1;
+        for (long id = 1; id <= requests; id++) {
+            itemRequests.add(Fixtures.request(id));
+            for (int i = 0; i < itemsPerRequest; i++) {
+                items.add(Fixtures.item(itemId++, id));
+            }
+        }
+
+        ItemRepository itemRepository = Stubs.repository(ItemRepository.class, Map.of("findByRequestIn", items));
+        service = new ItemRequestServiceImpl(null, null, itemRepository, null);
+    }
+
+    @Benchmark
+    public Object enrichRequestsWithItems() throws Throwable {
+        return (Object) ENRICH_REQUESTS_WITH_ITEMS.invokeExact((Object) service, (Object) itemRequests);
+    }
+}
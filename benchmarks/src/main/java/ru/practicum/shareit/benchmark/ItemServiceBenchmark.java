@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// ItemServiceImpl.getBookingInfo: сборка последнего и следующего бронирования для вещей владельца
+// из уже выбранных строк (запросы к БД заменены заглушкой)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+    private static final MethodHandle GET_BOOKING_INFO =
+            Stubs.privateMethod(ItemServiceImpl.class, "getBookingInfo", Map.class, List.class);
+
+    // вещей владельца; у каждой одно прошедшее и одно будущее бронирование
+    @Param({"1", "10", "100", "1000"})
+    private int bookings;
+
+    private ItemServiceImpl service;
+    private List<Long> itemIds;
+
+    @Setup
+    public void setUp() {
+        itemIds = new ArrayList<>(bookings);
+        List<ItemBookingDto> last = new ArrayList<>(bookings);
+        List<ItemBookingDto> next = new ArrayList<>(bookings);
+        for (long id = 1; id <= bookings; id++) {
+            itemIds.add(id);
+            last.add(Fixtures.itemBooking(id, id * 2, Fixtures.START.minusDays(id)));
+            next.add(Fixtures.itemBooking(id, id * 2 + 1, Fixtures.START.plusDays(id)));
+        }
+
+        BookingRepository bookingRepository = Stubs.repository(BookingRepository.class,
+                Map.of("findLastBookings", last, "findNextBookings", next));
+        service = new ItemServiceImpl(null, null, bookingRepository, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Object getBookingInfo() throws Throwable {
+        return (Object) GET_BOOKING_INFO.invokeExact((Object) service, (Object) itemIds);
+    }
+}
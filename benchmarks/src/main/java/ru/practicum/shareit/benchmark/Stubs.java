@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+// Заглушки репозиториев и доступ к закрытым методам сервисов: замеряется только код в памяти, без БД и Mockito
+final class Stubs {
+    private Stubs() {
+    }
+
+    // репозиторий, который на вызов метода с данным именем возвращает заранее подготовленный результат
+    static <T> T repository(Class<T> type, Map<String, Object> results) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + " stub";
+                    default -> {
+                        if (!results.containsKey(method.getName())) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        yield results.get(method.getName());
+                    }
+                }));
+    }
+
+    // закрытый метод экземпляра с типом (Object, параметры...)Object для invokeExact
+    static MethodHandle privateMethod(Class<?> type, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            MethodHandle handle = MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .findVirtual(type, name, MethodType.methodType(returnType, parameters));
+            return handle.asType(handle.type().generic());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Method " + type.getSimpleName() + "." + name + " not found", e);
+        }
+    }
+}
@@ -1,52 +1,95 @@
 package ru.practicum.shareit.booking;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import ru.practicum.shareit.booking.dto.BookItemBatchRequestDto;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CachedEndpoint;
+import ru.practicum.shareit.client.ResponseCache;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ObjectProvider<WebClient> webClient, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient(webClient, serverUrl + API_PREFIX),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getBookings(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Object getBookings(Long userId, BookingState state, Integer from, Integer size,
+                              LocalDateTime cursorStart, Long cursorId) {
+        return response(getBookings("", userId, state, from, size, cursorStart, cursorId));
+    }
+
+    public Object getOwnerBookings(Long userId, BookingState state, Integer from, Integer size,
+                                   LocalDateTime cursorStart, Long cursorId) {
+        return response(getBookings("/owner", userId, state, from, size, cursorStart, cursorId));
+    }
+
+    private Mono<ResponseEntity<Object>> getBookings(String path, Long userId, BookingState state, Integer from,
+                                               Integer size, LocalDateTime cursorStart, Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("Parameters cursorStart and cursorId must be set together");
+        }
+        if (cursorStart == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursorStart", cursorStart);
+        parameters.put("cursorId", cursorId);
+        return get(path + "?state={state}&from={from}&size={size}&cursorStart={cursorStart}&cursorId={cursorId}",
+                userId, parameters);
+    }
+
+    public Object bookItem(Long userId, BookItemRequestDto requestDto) {
+        // бронирование меняет последнее и следующее бронирования в карточке вещи
+        return response(invalidating(post("", userId, requestDto),
+                cache -> cache.invalidate(CachedEndpoint.ITEM, requestDto.getItemId())));
     }
 
-    public ResponseEntity<Object> bookItem(Long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Object bookItems(Long userId, BookItemBatchRequestDto requestDto) {
+        return response(invalidating(post("/batch", userId, requestDto),
+                cache -> requestDto.getBookings().stream()
+                        .map(BookItemRequestDto::getItemId)
+                        .distinct()
+                        .forEach(itemId -> cache.invalidate(CachedEndpoint.ITEM, itemId))));
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Object getBooking(Long userId, Long bookingId) {
+        return response(get("/" + bookingId, userId));
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
+    public Object approveBooking(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        // вещь бронирования здесь неизвестна; подтверждение влияет и на поиск свободных вещей
+        return response(invalidating(patch("/" + bookingId + "?approved={approved}", userId, parameters, null),
+                cache -> cache.invalidateAll(CachedEndpoint.ITEM, CachedEndpoint.ITEM_SEARCH)));
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +12,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDateTime;
+
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookItemBatchRequestDto;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -30,34 +33,60 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Object getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                              @RequestParam(name = "cursorStart", required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                              @Positive @RequestParam(name = "cursorId", required = false) Long cursorId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursorStart={}, cursorId={}",
+                stateParam, userId, from, size, cursorStart, cursorId);
+        return bookingClient.getBookings(userId, state, from, size, cursorStart, cursorId);
+    }
+
+    @GetMapping("/owner")
+    public Object getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                   @RequestParam(name = "cursorStart", required = false)
+                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                                   @Positive @RequestParam(name = "cursorId", required = false) Long cursorId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}, cursorStart={}, cursorId={}",
+                stateParam, userId, from, size, cursorStart, cursorId);
+        return bookingClient.getOwnerBookings(userId, state, from, size, cursorStart, cursorId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Object bookItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                           @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Object bookItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            @RequestBody @Valid BookItemBatchRequestDto requestDto) {
+        log.info("Creating {} bookings, userId={}", requestDto.getBookings().size(), userId);
+        return bookingClient.bookItems(userId, requestDto);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long bookingId) {
+    public Object getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                             @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId,
-                                                 @RequestParam Boolean approved) {
+    public Object approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @PathVariable Long bookingId,
+                                 @RequestParam Boolean approved) {
         log.info("Approve booking {}, userId={}, approved={}", bookingId, userId, approved);
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
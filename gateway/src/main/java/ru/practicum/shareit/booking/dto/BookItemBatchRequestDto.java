@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookItemBatchRequestDto {
+	@NotEmpty(message = "Bookings must be specified")
+	@Size(max = 100, message = "Batch must contain at most 100 bookings")
+	private List<@Valid @NotNull BookItemRequestDto> bookings;
+}
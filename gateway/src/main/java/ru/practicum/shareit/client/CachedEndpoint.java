@@ -0,0 +1,19 @@
+package ru.practicum.shareit.client;
+
+// Кэшируемые в шлюзе GET-запросы; perUser — ответ зависит от X-Sharer-User-Id
+public enum CachedEndpoint {
+    ITEM(true),
+    USER(false),
+    REQUEST(true),
+    ITEM_SEARCH(false);
+
+    private final boolean perUser;
+
+    CachedEndpoint(boolean perUser) {
+        this.perUser = perUser;
+    }
+
+    public boolean isPerUser() {
+        return perUser;
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Кэш успешных ответов сервера на идемпотентные GET-запросы. Записи вытесняются по времени жизни,
+// по общему объёму и при изменении тех же ресурсов через этот шлюз; метрики — cache.* с тегом cache=gateway-responses
+@Component
+public class ResponseCache implements MeterBinder {
+    public static final String NAME = "gateway-responses";
+    // ключ, заголовки и служебные структуры Caffeine сверх тела ответа
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final ResponseCacheProperties properties;
+    private final Cache<Key, CachedResponse> cache;
+    // растёт при каждой инвалидации: ответ, запрошенный до неё, в кэш уже не кладётся
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, CachedResponse response) -> response.weight())
+                // вытеснение в потоке запроса, а не в общем пуле: под нагрузкой кэш не превышает max-size
+                .executor(Runnable::run)
+                .expireAfter(new Expiry<Key, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(Key key, CachedResponse response, long currentTime) {
+                        return properties.endpoint(key.endpoint()).getTtl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled(CachedEndpoint endpoint) {
+        return properties.isEnabled() && properties.endpoint(endpoint).isEnabled();
+    }
+
+    public Mono<ResponseEntity<Object>> get(CachedEndpoint endpoint, @Nullable Object resourceId, String path,
+                                            @Nullable Long userId, @Nullable Map<String, Object> parameters,
+                                            Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!isEnabled(endpoint)) {
+            return request.get();
+        }
+        Key key = new Key(endpoint, resourceId, path, parameters != null ? Map.copyOf(parameters) : Map.of(),
+                endpoint.isPerUser() ? userId : null);
+
+        return Mono.defer(() -> {
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached.toResponse());
+            }
+            long requestedAt = generation.get();
+            return request.get().doOnNext(response -> {
+                if (response.getStatusCode() == HttpStatus.OK && generation.get() == requestedAt) {
+                    cache.put(key, CachedResponse.of(response));
+                }
+            });
+        });
+    }
+
+    public void invalidate(CachedEndpoint endpoint, @Nullable Object resourceId) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.endpoint() == endpoint
+                && Objects.equals(key.resourceId(), resourceId));
+    }
+
+    public void invalidateAll(CachedEndpoint... endpoints) {
+        generation.incrementAndGet();
+        for (CachedEndpoint endpoint : endpoints) {
+            cache.asMap().keySet().removeIf(key -> key.endpoint() == endpoint);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    private record Key(CachedEndpoint endpoint, @Nullable Object resourceId, String path,
+                       Map<String, Object> parameters, @Nullable Long userId) {
+    }
+
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, @Nullable byte[] body) {
+
+        static CachedResponse of(ResponseEntity<Object> response) {
+            return new CachedResponse(response.getStatusCode(), HttpHeaders.readOnlyHttpHeaders(response.getHeaders()),
+                    (byte[]) response.getBody());
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+
+        int weight() {
+            return ENTRY_OVERHEAD + (body != null ? body.length : 0);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Настройки кэша ответов шлюза: общий объём и время жизни записей по каждому кэшируемому запросу
+@Data
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    private Map<CachedEndpoint, Endpoint> endpoints = new EnumMap<>(CachedEndpoint.class);
+
+    public Endpoint endpoint(CachedEndpoint endpoint) {
+        return endpoints.getOrDefault(endpoint, Endpoint.DISABLED);
+    }
+
+    @Data
+    public static class Endpoint {
+        private static final Endpoint DISABLED = new Endpoint(false, Duration.ZERO);
+
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public Endpoint() {
+        }
+
+        Endpoint(boolean enabled, Duration ttl) {
+            this.enabled = enabled;
+            this.ttl = ttl;
+        }
+    }
+}
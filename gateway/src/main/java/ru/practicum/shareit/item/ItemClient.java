@@ -1,55 +1,104 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CachedEndpoint;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ObjectProvider<WebClient> webClient, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient(webClient, serverUrl + API_PREFIX),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemCreateDto itemDto) {
-        return post("", userId, itemDto);
+    public Object createItem(Long userId, ItemCreateDto itemDto) {
+        return response(invalidating(post("", userId, itemDto), cache -> {
+            cache.invalidateAll(CachedEndpoint.ITEM_SEARCH);
+            if (itemDto.getRequestId() != null) {
+                cache.invalidate(CachedEndpoint.REQUEST, itemDto.getRequestId());
+            }
+        }));
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Object updateItem(Long userId, Long itemId, ItemUpdateDto itemDto) {
+        // вещь входит в результаты поиска и в ответы на запросы
+        return response(invalidating(patch("/" + itemId, userId, itemDto), cache -> {
+            cache.invalidate(CachedEndpoint.ITEM, itemId);
+            cache.invalidateAll(CachedEndpoint.ITEM_SEARCH, CachedEndpoint.REQUEST);
+        }));
     }
 
-    public ResponseEntity<Object> getItem(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Object getItem(Long userId, Long itemId) {
+        return response(cachedGet(CachedEndpoint.ITEM, itemId, "/" + itemId, userId, null));
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long userId) {
-        return get("", userId);
+    public Object getItemsByOwner(Long userId) {
+        return response(get("", userId));
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public Object searchItems(String text, Integer from, Integer size,
+                              LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (start == null || end == null) {
+            return response(cachedGet(CachedEndpoint.ITEM_SEARCH, null, "/search?text={text}&from={from}&size={size}",
+                    null, parameters));
+        }
+        parameters.put("start", start);
+        parameters.put("end", end);
+        return response(cachedGet(CachedEndpoint.ITEM_SEARCH, null,
+                "/search?text={text}&from={from}&size={size}&start={start}&end={end}", null, parameters));
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Object getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return response(get("/" + itemId + "/availability?from={from}&to={to}", null, parameters));
+    }
+
+    public Object getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "ids", itemIds.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                "from", from,
+                "to", to
+        );
+        return response(get("/availability?ids={ids}&from={from}&to={to}", null, parameters));
+    }
+
+    public Object addComment(Long userId, Long itemId, CommentDto commentDto) {
+        return response(invalidating(post("/" + itemId + "/comment", userId, commentDto),
+                cache -> cache.invalidate(CachedEndpoint.ITEM, itemId)));
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +13,9 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -20,43 +25,72 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Valid @RequestBody ItemCreateDto itemDto) {
+    public Object createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                             @Valid @RequestBody ItemCreateDto itemDto) {
         log.info("Creating item by user {}: {}", userId, itemDto);
         return itemClient.createItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long itemId,
-                                             @RequestBody ItemUpdateDto itemDto) {
+    public Object updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                             @PathVariable Long itemId,
+                             @RequestBody ItemUpdateDto itemDto) {
         log.info("Updating item {} by user {}", itemId, userId);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @PathVariable Long itemId) {
+    public Object getItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                          @PathVariable Long itemId) {
         log.info("Get item {} by user {}", itemId, userId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Object getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get items by owner {}", userId);
         return itemClient.getItemsByOwner(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
-        log.info("Search items with text: {}", text);
-        return itemClient.searchItems(text);
+    public Object searchItems(@RequestParam String text,
+                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                              @RequestParam(required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                              @RequestParam(required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException("Parameters start and end must be set together, start before end");
+        }
+        log.info("Search items with text: {}, from={}, size={}, start={}, end={}", text, from, size, start, end);
+        return itemClient.searchItems(text, from, size, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Object getAvailability(@PathVariable Long itemId,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                  LocalDateTime from,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                  LocalDateTime to) {
+        log.info("Get availability of item {} from {} to {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public Object getAvailability(@RequestParam List<Long> ids,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                  LocalDateTime from,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                  LocalDateTime to) {
+        log.info("Get availability of items {} from {} to {}", ids, from, to);
+        return itemClient.getAvailability(ids, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long itemId,
-                                             @Valid @RequestBody CommentDto commentDto) {
+    public Object addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                             @PathVariable Long itemId,
+                             @Valid @RequestBody CommentDto commentDto) {
         log.info("Adding comment to item {} by user {}", itemId, userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
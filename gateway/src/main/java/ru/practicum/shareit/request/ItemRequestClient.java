@@ -1,13 +1,16 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CachedEndpoint;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -17,32 +20,36 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory,
+                             ObjectProvider<WebClient> webClient, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient(webClient, serverUrl + API_PREFIX),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Object createRequest(Long userId, ItemRequestDto requestDto) {
+        return response(post("", userId, requestDto));
     }
 
-    public ResponseEntity<Object> getUserRequests(Long userId) {
-        return get("", userId);
+    public Object getUserRequests(Long userId) {
+        return response(get("", userId));
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public Object getAllRequests(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return response(get("/all?from={from}&size={size}", userId, parameters));
     }
 
-    public ResponseEntity<Object> getRequest(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Object getRequest(Long userId, Long requestId) {
+        return response(cachedGet(CachedEndpoint.REQUEST, requestId, "/" + requestId, userId, null));
     }
 }
\ No newline at end of file
@@ -5,7 +5,6 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -20,30 +19,30 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @Valid @RequestBody ItemRequestDto requestDto) {
+    public Object createRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                @Valid @RequestBody ItemRequestDto requestDto) {
         log.info("Creating request from user {}: {}", userId, requestDto);
         return itemRequestClient.createRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Object getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get requests for user {}", userId);
         return itemRequestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
-            @RequestHeader("X-Sharer-User-Id") Long userId,
-            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-            @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Object getAllRequests(
+                                 @RequestHeader("X-Sharer-User-Id") Long userId,
+                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                 @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Get all requests from={}, size={}", from, size);
         return itemRequestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long requestId) {
+    public Object getRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                             @PathVariable Long requestId) {
         log.info("Get request {} by user {}", requestId, userId);
         return itemRequestClient.getRequest(userId, requestId);
     }
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CachedEndpoint;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -15,32 +18,40 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ObjectProvider<WebClient> webClient, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient(webClient, serverUrl + API_PREFIX),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
-        return post("", userDto);
+    public Object createUser(UserDto userDto) {
+        return response(post("", userDto));
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+    public Object updateUser(Long userId, UserDto userDto) {
+        return response(invalidating(patch("/" + userId, userDto), cache -> cache.invalidate(CachedEndpoint.USER, userId)));
     }
 
-    public ResponseEntity<Object> getUser(Long userId) {
-        return get("/" + userId);
+    public Object getUser(Long userId) {
+        return response(cachedGet(CachedEndpoint.USER, userId, "/" + userId, null, null));
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
-        return delete("/" + userId);
+    public Object deleteUser(Long userId) {
+        // вместе с пользователем удаляются его вещи, бронирования и запросы
+        return response(invalidating(delete("/" + userId), cache -> {
+            cache.invalidate(CachedEndpoint.USER, userId);
+            cache.invalidateAll(CachedEndpoint.ITEM, CachedEndpoint.ITEM_SEARCH, CachedEndpoint.REQUEST);
+        }));
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public Object getAllUsers() {
+        return response(get(""));
     }
 }
\ No newline at end of file
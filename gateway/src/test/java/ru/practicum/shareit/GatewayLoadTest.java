@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+// Сравнение режимов шлюза в одной JVM при одинаковом числе потоков Tomcat:
+// сколько запросов одновременно доходит до медленного сервера. Ресурс, общий для обоих режимов, —
+// потоки, а не память: размер кучи задаёт форк surefire, и из теста его не ограничить.
+// Тест идёт около полуминуты и зависит от времени, поэтому запускается отдельно:
+// mvn -pl gateway test -Pbenchmark -Dtest=GatewayLoadTest
+@Tag("benchmark")
+class GatewayLoadTest {
+    private static final int TOMCAT_THREADS = 8;
+    private static final int REQUESTS = 96;
+    private static final long SERVER_DELAY_MILLIS = 500;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+                byte[] body = "{\"id\":1,\"name\":\"User\",\"email\":\"user@email.com\"}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void blockingMode_shouldBeLimitedByTomcatThreads() throws Exception {
+        runLoad("BLOCKING");
+
+        assertThat(maxInFlight.get(), lessThanOrEqualTo(TOMCAT_THREADS));
+    }
+
+    @Test
+    void reactiveMode_shouldKeepMoreRequestsInFlightThanTomcatThreads() throws Exception {
+        runLoad("REACTIVE");
+
+        assertThat(maxInFlight.get(), greaterThan(TOMCAT_THREADS * 2));
+    }
+
+    private void runLoad(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                "--shareit-server.mode=" + mode,
+                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                "--shareit-server.cache.enabled=false",
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build();
+
+            // прогрев: первый запрос инициализирует клиентов и кодеки
+            client.send(request, HttpResponse.BodyHandlers.ofString());
+            maxInFlight.set(0);
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                HttpResponse<String> result = response.get(1, TimeUnit.MINUTES);
+                assertThat(result.body(), result.statusCode(), equalTo(200));
+                assertThat(result.body(), containsString("user@email.com"));
+            }
+        }
+    }
+}
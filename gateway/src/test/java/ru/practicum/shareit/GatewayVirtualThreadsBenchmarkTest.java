@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Пропускная способность и задержки шлюза в режиме BLOCKING на пуле Tomcat
+// и на виртуальных потоках при большом числе одновременных соединений.
+// Запуск: mvn -pl gateway test -Pbenchmark -Dbenchmark.connections=10000
+// (нужно около трёх дескрипторов на соединение, см. ulimit -n)
+@Tag("benchmark")
+class GatewayVirtualThreadsBenchmarkTest {
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 10_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+    private static final long SERVER_DELAY_MILLIS = Long.getLong("benchmark.server-delay", 100);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // по умолчанию заглушка держит только 200 простаивающих соединений и рвёт остальные
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(CONNECTIONS));
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), CONNECTIONS);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+                byte[] body = "{\"id\":1,\"name\":\"User\",\"email\":\"user@email.com\"}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void measure(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + CONNECTIONS,
+                "--server.tomcat.accept-count=" + CONNECTIONS,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                "--shareit-server.cache.enabled=false",
+                "--shareit-server.http.max-total=" + CONNECTIONS,
+                "--shareit-server.http.max-per-route=" + CONNECTIONS,
+                "--shareit-server.http.connection-request-timeout=5m",
+                "--shareit-server.http.response-timeout=5m",
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1"))
+                    .timeout(Duration.ofMinutes(5))
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+
+            for (int round = 1; round <= ROUNDS; round++) {
+                long[] latencies = new long[CONNECTIONS];
+                List<CompletableFuture<Void>> responses = new ArrayList<>(CONNECTIONS);
+                long started = System.nanoTime();
+                for (int i = 0; i < CONNECTIONS; i++) {
+                    int index = i;
+                    long sent = System.nanoTime();
+                    responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                            .thenAccept(response -> {
+                                latencies[index] = System.nanoTime() - sent;
+                                assertThat(response.statusCode(), equalTo(200));
+                            }));
+                }
+                CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(10, TimeUnit.MINUTES);
+                long elapsed = System.nanoTime() - started;
+
+                Arrays.sort(latencies);
+                System.out.printf("%s, %d connections, round %d: %.0f req/s, p50 %d ms, p99 %d ms, max %d ms%n",
+                        virtualThreads ? "virtual threads" : "platform threads", CONNECTIONS, round,
+                        CONNECTIONS * 1e9 / elapsed,
+                        TimeUnit.NANOSECONDS.toMillis(latencies[CONNECTIONS / 2]),
+                        TimeUnit.NANOSECONDS.toMillis(latencies[CONNECTIONS * 99 / 100]),
+                        TimeUnit.NANOSECONDS.toMillis(latencies[CONNECTIONS - 1]));
+            }
+        }
+    }
+}
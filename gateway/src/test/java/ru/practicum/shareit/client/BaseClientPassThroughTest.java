@@ -0,0 +1,134 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+// Тело ответа сервера должно дойти до клиента байт в байт: форматирование и числа
+// изменились бы при разборе в Object и повторной сериализации
+class BaseClientPassThroughTest {
+    private static final String USER = "{ \"id\" : 1,\n  \"name\" : \"User\", \"email\" : \"user@email.com\", \"rating\" : 1.50 }";
+    private static final String NOT_FOUND = "{ \"error\" : \"User with id 2 not found\" }";
+    private static final String ETAG = "\"1.1.4.0.0\"";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(String.valueOf(condition));
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            if (ETAG.equals(condition)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            boolean found = !exchange.getRequestURI().getPath().equals("/users/2");
+            byte[] body = (found ? USER : NOT_FOUND).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-Server-Header", "kept");
+            exchange.getResponseHeaders().set("Connection", "keep-alive");
+            exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BLOCKING", "REACTIVE"})
+    void responses_shouldBePassedThroughUnchanged(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--shareit-server.mode=" + mode,
+                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+
+            HttpResponse<String> found = client.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/users/1")).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(found.statusCode(), equalTo(200));
+            assertThat(found.body(), equalTo(USER));
+            assertThat(found.headers().firstValue("Content-Type").orElseThrow(), startsWith("application/json"));
+            assertThat(found.headers().firstValue("X-Server-Header").orElseThrow(), equalTo("kept"));
+
+            HttpResponse<String> notFound = client.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/users/2")).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(notFound.statusCode(), equalTo(404));
+            assertThat(notFound.body(), equalTo(NOT_FOUND));
+            assertThat(notFound.headers().firstValue("X-Server-Header").orElseThrow(), equalTo("kept"));
+
+            // Mono в блокирующем режиме перевёл бы запрос в асинхронную обработку Spring MVC
+            Object response = context.getBean(UserClient.class).getAllUsers();
+            assertThat(response, mode.equals("BLOCKING") ? instanceOf(ResponseEntity.class) : instanceOf(Mono.class));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BLOCKING", "REACTIVE"})
+    void conditionalGet_shouldBeForwardedOrAnsweredFromCache(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--shareit-server.mode=" + mode,
+                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+
+            // список бронирований не кэшируется: условие уходит серверу, его 304 возвращается клиенту
+            HttpResponse<String> bookings = client.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/bookings"))
+                    .header("X-Sharer-User-Id", "1")
+                    .header("If-None-Match", ETAG)
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(bookings.statusCode(), equalTo(304));
+            assertThat(bookings.headers().firstValue("ETag").orElseThrow(), equalTo(ETAG));
+            assertThat(conditions, contains(ETAG));
+
+            // пользователь кэшируется: полный ответ загружается без условия, повторный запрос не доходит до сервера
+            HttpRequest user = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1"))
+                    .header("If-None-Match", ETAG)
+                    .build();
+            assertThat(client.send(user, HttpResponse.BodyHandlers.ofString()).statusCode(), equalTo(304));
+            assertThat(client.send(user, HttpResponse.BodyHandlers.ofString()).statusCode(), equalTo(304));
+            assertThat(conditions, contains(ETAG, "null"));
+            assertThat(requests.get(), equalTo(2));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+class ResponseCacheTest {
+    private final AtomicInteger requests = new AtomicInteger();
+    private ResponseCacheProperties properties;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        for (CachedEndpoint endpoint : CachedEndpoint.values()) {
+            properties.getEndpoints().put(endpoint, new ResponseCacheProperties.Endpoint());
+        }
+        cache = new ResponseCache(properties);
+    }
+
+    @Test
+    void get_shouldServeRepeatedRequestFromCache() {
+        String first = body(get(CachedEndpoint.USER, 1L, 10L));
+        String second = body(get(CachedEndpoint.USER, 1L, 20L));
+
+        assertThat(first, equalTo("response 1"));
+        assertThat(second, equalTo("response 1"));
+        assertThat(requests.get(), equalTo(1));
+    }
+
+    @Test
+    void get_shouldKeepSeparateEntriesPerUserForUserDependentEndpoints() {
+        get(CachedEndpoint.ITEM, 1L, 10L).block();
+        get(CachedEndpoint.ITEM, 1L, 20L).block();
+        get(CachedEndpoint.ITEM, 1L, 10L).block();
+
+        assertThat(requests.get(), equalTo(2));
+    }
+
+    @Test
+    void get_shouldKeyByQueryParameters() {
+        cache.get(CachedEndpoint.ITEM_SEARCH, null, "/search?text={text}", null, Map.of("text", "drill"), server()).block();
+        cache.get(CachedEndpoint.ITEM_SEARCH, null, "/search?text={text}", null, Map.of("text", "saw"), server()).block();
+        cache.get(CachedEndpoint.ITEM_SEARCH, null, "/search?text={text}", null, Map.of("text", "drill"), server()).block();
+
+        assertThat(requests.get(), equalTo(2));
+    }
+
+    @Test
+    void get_shouldNotCacheErrors() {
+        Supplier<Mono<ResponseEntity<Object>>> notFound = () -> {
+            requests.incrementAndGet();
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        };
+
+        cache.get(CachedEndpoint.USER, 1L, "/1", null, null, notFound).block();
+        cache.get(CachedEndpoint.USER, 1L, "/1", null, null, notFound).block();
+
+        assertThat(requests.get(), equalTo(2));
+    }
+
+    @Test
+    void get_shouldBypassCacheForDisabledEndpoint() {
+        properties.getEndpoints().get(CachedEndpoint.USER).setEnabled(false);
+
+        get(CachedEndpoint.USER, 1L, null).block();
+        get(CachedEndpoint.USER, 1L, null).block();
+
+        assertThat(requests.get(), equalTo(2));
+    }
+
+    @Test
+    void get_shouldExpireEntriesAfterTtl() throws InterruptedException {
+        properties.getEndpoints().get(CachedEndpoint.USER).setTtl(Duration.ofMillis(50));
+
+        get(CachedEndpoint.USER, 1L, null).block();
+        Thread.sleep(100);
+        String second = body(get(CachedEndpoint.USER, 1L, null));
+
+        assertThat(second, equalTo("response 2"));
+    }
+
+    @Test
+    void get_shouldEvictWhenMaxSizeExceeded() {
+        properties.setMaxSize(DataSize.ofKilobytes(4));
+        cache = new ResponseCache(properties);
+
+        for (long id = 1; id <= 100; id++) {
+            get(CachedEndpoint.USER, id, null).block();
+        }
+        requests.set(0);
+        for (long id = 1; id <= 100; id++) {
+            get(CachedEndpoint.USER, id, null).block();
+        }
+
+        assertThat(requests.get(), greaterThan(90));
+    }
+
+    @Test
+    void invalidate_shouldDropEntriesOfResourceForAllUsers() {
+        get(CachedEndpoint.ITEM, 1L, 10L).block();
+        get(CachedEndpoint.ITEM, 1L, 20L).block();
+        get(CachedEndpoint.ITEM, 2L, 10L).block();
+
+        cache.invalidate(CachedEndpoint.ITEM, 1L);
+        get(CachedEndpoint.ITEM, 1L, 10L).block();
+        get(CachedEndpoint.ITEM, 1L, 20L).block();
+        get(CachedEndpoint.ITEM, 2L, 10L).block();
+
+        assertThat(requests.get(), equalTo(5));
+    }
+
+    @Test
+    void invalidate_shouldDiscardResponseRequestedBeforeIt() {
+        Mono<ResponseEntity<Object>> slow = cache.get(CachedEndpoint.USER, 1L, "/1", null, null,
+                () -> Mono.fromSupplier(() -> {
+                    // изменение пришло, пока сервер отвечал старыми данными
+                    cache.invalidate(CachedEndpoint.USER, 1L);
+                    return ResponseEntity.ok((Object) "stale".getBytes(StandardCharsets.UTF_8));
+                }));
+        slow.block();
+
+        String fresh = body(get(CachedEndpoint.USER, 1L, null));
+
+        assertThat(fresh, equalTo("response 1"));
+    }
+
+    @Test
+    void bindTo_shouldExposeHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        get(CachedEndpoint.USER, 1L, null).block();
+        get(CachedEndpoint.USER, 1L, null).block();
+
+        assertThat(registry.get("cache.gets").tag("cache", ResponseCache.NAME).tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(registry.get("cache.gets").tag("cache", ResponseCache.NAME).tag("result", "miss")
+                .functionCounter().count(), equalTo(1.0));
+    }
+
+    private Mono<ResponseEntity<Object>> get(CachedEndpoint endpoint, Long id, Long userId) {
+        return cache.get(endpoint, id, "/" + id, userId, null, server());
+    }
+
+    private Supplier<Mono<ResponseEntity<Object>>> server() {
+        return () -> Mono.fromSupplier(() -> ResponseEntity.ok(
+                (Object) ("response " + requests.incrementAndGet()).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String body(Mono<ResponseEntity<Object>> response) {
+        return new String((byte[]) response.block().getBody(), StandardCharsets.UTF_8);
+    }
+}
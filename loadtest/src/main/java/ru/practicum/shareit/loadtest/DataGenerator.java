@@ -0,0 +1,174 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+// Синтетический набор данных: пользователи, запросы, вещи владельцев, история бронирований с отзывами.
+// Бронирования распределяются по вещам согласно distribution и на шкале каждой вещи не пересекаются,
+// поэтому проходят и ограничение исключения PostgreSQL. После загрузки последовательности id сдвигаются за данные
+public class DataGenerator {
+    private static final String[] WORDS = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera",
+            "projector", "grill", "sander", "mixer", "vacuum", "tripod", "skis", "guitar", "scooter", "sleeping bag"};
+    private static final String[] TABLES = {"users", "requests", "items", "bookings", "comments"};
+
+    private final Connection connection;
+    private final Dataset dataset;
+    private final SplittableRandom random;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    private long commentId;
+
+    public DataGenerator(Connection connection, Dataset dataset) {
+        this.connection = connection;
+        this.dataset = dataset;
+        this.random = new SplittableRandom(dataset.seed());
+    }
+
+    public static String word(long index) {
+        return WORDS[(int) (index % WORDS.length)];
+    }
+
+    // таблицы и последовательности — теми же скриптами, что выполняет сервер при старте (старые данные удаляются)
+    public void createSchema() throws SQLException {
+        String platform = isPostgres() ? "postgresql" : "h2";
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-" + platform + ".sql"));
+    }
+
+    public void generate() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long started = System.nanoTime();
+            loadUsers();
+            loadRequests();
+            loadItems();
+            loadBookingsAndComments();
+            restartSequences();
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            connection.commit();
+            System.out.printf("Loaded %d users, %d requests, %d items, %d bookings, %d comments in %d s%n",
+                    dataset.users(), dataset.requests(), dataset.items(), dataset.bookings(), commentId,
+                    (System.nanoTime() - started) / 1_000_000_000);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void loadUsers() throws SQLException {
+        try (TableWriter users = TableWriter.open(connection, "users", "id", "name", "email")) {
+            for (long id = 1; id <= dataset.users(); id++) {
+                users.row(id, "User " + id, "user" + id + "@loadtest.local");
+            }
+        }
+    }
+
+    private void loadRequests() throws SQLException {
+        try (TableWriter requests = TableWriter.open(connection, "requests",
+                "id", "description", "requestor_id", "created")) {
+            for (long id = 1; id <= dataset.requests(); id++) {
+                requests.row(id, "Need a " + word(random.nextInt(WORDS.length)) + " for a few days",
+                        randomUser(), now.minusMinutes(random.nextLong(dataset.historyDays() * 24L * 60)));
+            }
+        }
+    }
+
+    private void loadItems() throws SQLException {
+        try (TableWriter items = TableWriter.open(connection, "items",
+                "id", "name", "description", "is_available", "owner_id", "request_id")) {
+            for (long id = 1; id <= dataset.items(); id++) {
+                String word = word(id);
+                Long requestId = dataset.requests() > 0 && random.nextDouble() < dataset.requestedItems()
+                        ? (long) random.nextInt(dataset.requests()) + 1 : null;
+                items.row(id, Character.toUpperCase(word.charAt(0)) + word.substring(1) + " " + id,
+                        "A " + word + ", model " + id % 97 + ", good condition",
+                        random.nextInt(20) != 0, dataset.ownerOf(id), requestId);
+            }
+        }
+    }
+
+    private void loadBookingsAndComments() throws SQLException {
+        int[] perItem = new int[dataset.items()];
+        Distribution popularity = Distribution.parse(dataset.distribution(), dataset.items());
+        for (int i = 0; i < dataset.bookings(); i++) {
+            perItem[popularity.sample(random)]++;
+        }
+
+        LocalDateTime from = now.minusDays(dataset.historyDays());
+        long spanMinutes = (dataset.historyDays() + dataset.futureDays()) * 24L * 60;
+        long bookingId = 0;
+        try (TableWriter bookings = TableWriter.open(connection, "bookings",
+                "id", "start_date", "end_date", "item_id", "booker_id", "status");
+             TableWriter comments = TableWriter.open(connection, "comments",
+                     "id", "text", "item_id", "author_id", "created")) {
+            for (int index = 0; index < perItem.length; index++) {
+                long itemId = index + 1;
+                int count = perItem[index];
+                // шкала вещи делится на count равных слотов, бронирование занимает от четверти до трёх четвертей слота
+                double slot = (double) spanMinutes / Math.max(count, 1);
+                for (int k = 0; k < count; k++) {
+                    long duration = Math.max(1, (long) (slot * (0.25 + random.nextDouble() * 0.5)));
+                    long offset = (long) (slot * k + random.nextDouble() * (slot - duration));
+                    LocalDateTime start = from.plusMinutes(offset);
+                    LocalDateTime end = start.plusMinutes(duration);
+                    long booker = randomBooker(itemId);
+                    String status = status(start, end);
+                    bookings.row(++bookingId, start, end, itemId, booker, status);
+
+                    if (status.equals("APPROVED") && end.isBefore(now) && random.nextDouble() < dataset.comments()) {
+                        comments.row(++commentId, "Rented the " + word(itemId) + ", all good", itemId, booker,
+                                end.plusHours(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private String status(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(now)) {
+            return random.nextInt(100) < 85 ? "APPROVED" : "REJECTED";
+        }
+        if (start.isAfter(now)) {
+            return random.nextInt(100) < 60 ? "APPROVED" : "WAITING";
+        }
+        return "APPROVED";
+    }
+
+    // следующий блок Hibernate (allocationSize = 50) начнётся сразу за сгенерированными id
+    private void restartSequences() throws SQLException {
+        long[] counts = {dataset.users(), dataset.requests(), dataset.items(), dataset.bookings(), commentId};
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < TABLES.length; i++) {
+                statement.execute("ALTER SEQUENCE " + TABLES[i] + "_seq RESTART WITH " + (counts[i] + 50));
+            }
+        }
+    }
+
+    private long randomUser() {
+        return random.nextInt(dataset.users()) + 1;
+    }
+
+    private long randomBooker(long itemId) {
+        long booker = randomUser();
+        if (booker == dataset.ownerOf(itemId) && dataset.users() > 1) {
+            booker = booker % dataset.users() + 1;
+        }
+        return booker;
+    }
+
+    private boolean isPostgres() throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+// Размеры сгенерированного набора. Идентификаторы плотные (1..N), владельцы — пользователи 1..owners,
+// вещи владельца k — ((k - 1) * itemsPerOwner, k * itemsPerOwner]; нагрузчик выбирает id по этому файлу
+public record Dataset(int users, int owners, int itemsPerOwner, int requests, int bookings,
+                      double requestedItems, double comments, String distribution,
+                      int historyDays, int futureDays, long seed) {
+
+    public static Dataset of(Map<String, String> options) {
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        return new Dataset(
+                users,
+                Integer.parseInt(options.getOrDefault("owners", String.valueOf(Math.max(1, users / 5)))),
+                Integer.parseInt(options.getOrDefault("items-per-owner", "5")),
+                Integer.parseInt(options.getOrDefault("requests", String.valueOf(users / 2))),
+                Integer.parseInt(options.getOrDefault("bookings", String.valueOf(users * 10))),
+                Double.parseDouble(options.getOrDefault("requested-items", "0.1")),
+                Double.parseDouble(options.getOrDefault("comments", "0.3")),
+                options.getOrDefault("distribution", "zipf:1.0"),
+                Integer.parseInt(options.getOrDefault("history-days", "365")),
+                Integer.parseInt(options.getOrDefault("future-days", "90")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+    }
+
+    public int items() {
+        return owners * itemsPerOwner;
+    }
+
+    public long ownerOf(long itemId) {
+        return (itemId - 1) / itemsPerOwner + 1;
+    }
+
+    public static Dataset load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return of(properties.stringPropertyNames().stream()
+                .collect(Collectors.toMap(name -> name, properties::getProperty)));
+    }
+
+    public void save(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("users", String.valueOf(users));
+        properties.setProperty("owners", String.valueOf(owners));
+        properties.setProperty("items-per-owner", String.valueOf(itemsPerOwner));
+        properties.setProperty("requests", String.valueOf(requests));
+        properties.setProperty("bookings", String.valueOf(bookings));
+        properties.setProperty("requested-items", String.valueOf(requestedItems));
+        properties.setProperty("comments", String.valueOf(comments));
+        properties.setProperty("distribution", distribution);
+        properties.setProperty("history-days", String.valueOf(historyDays));
+        properties.setProperty("future-days", String.valueOf(futureDays));
+        properties.setProperty("seed", String.valueOf(seed));
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "ShareIt load test dataset");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Выбор индекса 0..size-1: uniform или zipf:<s> — индекс k выбирается с вероятностью, пропорциональной 1 / (k + 1)^s,
+// то есть популярность вещей убывает от первых id к последним
+public final class Distribution {
+    private final int size;
+    private final double[] cumulative;
+
+    private Distribution(int size, double[] cumulative) {
+        this.size = size;
+        this.cumulative = cumulative;
+    }
+
+    public static Distribution parse(String spec, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Distribution size must be positive");
+        }
+        if (spec.equals("uniform")) {
+            return new Distribution(size, null);
+        }
+        if (spec.startsWith("zipf:")) {
+            double exponent = Double.parseDouble(spec.substring("zipf:".length()));
+            double[] cumulative = new double[size];
+            double sum = 0;
+            for (int k = 0; k < size; k++) {
+                sum += 1 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < size; k++) {
+                cumulative[k] /= sum;
+            }
+            return new Distribution(size, cumulative);
+        }
+        throw new IllegalArgumentException("Unknown distribution: " + spec + " (expected uniform or zipf:<s>)");
+    }
+
+    public int sample(RandomGenerator random) {
+        if (cumulative == null) {
+            return random.nextInt(size);
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, size - 1);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Запросы к шлюзу; вещи выбираются с той же популярностью, что и при генерации бронирований
+public enum Endpoint {
+    ITEM {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            return get(gateway, "/items/" + targets.item(), targets.user());
+        }
+    },
+    OWNER_ITEMS {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            return get(gateway, "/items", targets.owner());
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            return get(gateway, "/items/search?text=" + targets.word().replace(" ", "+") + "&from=0&size=20",
+                    targets.user());
+        }
+    },
+    BOOKINGS {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            return get(gateway, "/bookings?state=ALL&from=0&size=20", targets.user());
+        }
+    },
+    OWNER_BOOKINGS {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            return get(gateway, "/bookings/owner?state=ALL&from=0&size=20", targets.owner());
+        }
+    },
+    REQUESTS {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            return get(gateway, "/requests/all?from=0&size=20", targets.user());
+        }
+    },
+    // новые бронирования за горизонтом сгенерированной истории: ожидают подтверждения и не пересекаются с ней
+    CREATE_BOOKING {
+        @Override
+        HttpRequest.Builder request(URI gateway, Targets targets) {
+            long item = targets.item();
+            LocalDateTime start = targets.horizon().plusHours(ThreadLocalRandom.current().nextInt(24 * 365));
+            String body = "{\"itemId\":" + item + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}";
+            return HttpRequest.newBuilder(gateway.resolve("/bookings"))
+                    .header("X-Sharer-User-Id", String.valueOf(targets.booker(item)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    public static final String READS = "item,owner-items,search,bookings,owner-bookings,requests";
+
+    abstract HttpRequest.Builder request(URI gateway, Targets targets);
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static Endpoint of(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key().equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint: " + key));
+    }
+
+    private static HttpRequest.Builder get(URI gateway, String path, long userId) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET();
+    }
+
+    // случайные id в границах набора данных
+    static final class Targets {
+        private final Dataset dataset;
+        private final Distribution popularity;
+        private final LocalDateTime horizon;
+
+        Targets(Dataset dataset) {
+            this.dataset = dataset;
+            this.popularity = Distribution.parse(dataset.distribution(), dataset.items());
+            this.horizon = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(dataset.futureDays() + 1L);
+        }
+
+        long item() {
+            return popularity.sample(ThreadLocalRandom.current()) + 1;
+        }
+
+        long user() {
+            return ThreadLocalRandom.current().nextInt(dataset.users()) + 1;
+        }
+
+        long owner() {
+            return ThreadLocalRandom.current().nextInt(dataset.owners()) + 1;
+        }
+
+        long booker(long itemId) {
+            long booker = user();
+            return booker == dataset.ownerOf(itemId) && dataset.users() > 1 ? booker % dataset.users() + 1 : booker;
+        }
+
+        String word() {
+            return DataGenerator.word(ThreadLocalRandom.current().nextInt(1000));
+        }
+
+        LocalDateTime horizon() {
+            return horizon;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Нагрузка на шлюз с постоянной частотой запросов (открытая модель: запрос отправляется по расписанию,
+// не дожидаясь предыдущих, задержка считается от запланированного момента). Эндпоинты нагружаются по очереди,
+// число SQL-запросов на запрос — прирост hibernate.statements сервера за время замера, делённый на число ответов
+public class LoadDriver {
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"statistic\"\\s*:\\s*\"COUNT\"\\s*,\\s*\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final URI gateway;
+    private final URI server;
+    private final Endpoint.Targets targets;
+    private final HttpClient client;
+
+    public LoadDriver(URI gateway, URI server, Dataset dataset) {
+        this.gateway = gateway;
+        this.server = server;
+        this.targets = new Endpoint.Targets(dataset);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public List<Result> run(List<Endpoint> endpoints, int rps, Duration warmup, Duration duration) {
+        List<Result> results = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            measure(endpoint, rps, warmup);
+            double statementsBefore = statements();
+            Result result = measure(endpoint, rps, duration);
+            double statementsAfter = statements();
+            result = result.withStatements(Double.isNaN(statementsBefore) || result.completed() == 0
+                    ? Double.NaN : (statementsAfter - statementsBefore) / result.completed());
+            System.out.println(result.format());
+            results.add(result);
+        }
+        return results;
+    }
+
+    private Result measure(Endpoint endpoint, int rps, Duration duration) {
+        int total = (int) (rps * duration.toMillis() / 1000);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        long[] latencies = new long[total];
+        AtomicInteger errors = new AtomicInteger();
+        Map<String, AtomicInteger> outcomes = new ConcurrentSkipListMap<>();
+        List<CompletableFuture<Void>> responses = new ArrayList<>(total);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduled = started + i * interval;
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            int index = i;
+            HttpRequest request = endpoint.request(gateway, targets).timeout(Duration.ofSeconds(30)).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies[index] = System.nanoTime() - scheduled;
+                        String outcome = error != null ? error.getClass().getSimpleName()
+                                : String.valueOf(response.statusCode());
+                        outcomes.computeIfAbsent(outcome, key -> new AtomicInteger()).incrementAndGet();
+                        if (error != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        return new Result(endpoint.key(), total, errors.get(), total * 1e9 / elapsed,
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999), Double.NaN,
+                outcomes.entrySet().stream()
+                        .map(entry -> entry.getKey() + "x" + entry.getValue())
+                        .collect(Collectors.joining(" ")));
+    }
+
+    // счётчик подготовленных JDBC-запросов Hibernate; NaN, если actuator сервера недоступен
+    private double statements() {
+        HttpRequest request = HttpRequest.newBuilder(
+                        server.resolve("/actuator/metrics/hibernate.statements?tag=status:prepared"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = METRIC_VALUE.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+        } catch (IOException e) {
+            return Double.NaN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Double.NaN;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    public static void writeCsv(List<Result> results, Path path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("endpoint,requests,errors,rps,p50_ms,p99_ms,p999_ms,statements_per_request,outcomes");
+            for (Result result : results) {
+                writer.printf(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%s%n", result.endpoint(),
+                        result.completed(), result.errors(), result.rps(), result.p50(), result.p99(), result.p999(),
+                        result.statements(), result.outcomes());
+            }
+        }
+    }
+
+    // outcomes — число ответов по кодам статуса и исключениям клиента, например "200x990 404x10"
+    public record Result(String endpoint, int completed, int errors, double rps,
+                         double p50, double p99, double p999, double statements, String outcomes) {
+
+        Result withStatements(double statementsPerRequest) {
+            return new Result(endpoint, completed, errors, rps, p50, p99, p999, statementsPerRequest, outcomes);
+        }
+
+        String format() {
+            return String.format(Locale.ROOT,
+                    "%-15s %7d req %5d err %8.1f rps  p50 %8.2f ms  p99 %8.2f ms  p999 %8.2f ms  %6.2f SQL/req  %s",
+                    endpoint, completed, errors, rps, p50, p99, p999, statements, outcomes);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Точка входа: generate — создать схему (--schema) и загрузить набор данных, run — нагрузить шлюз.
+// Параметры передаются как --имя=значение, см. README
+public class LoadTest {
+    private static final String DATASET_FILE = "loadtest-dataset.properties";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !(args[0].equals("generate") || args[0].equals("run"))) {
+            System.err.println("Usage: java -jar loadtest.jar generate|run [--option=value ...]");
+            System.exit(2);
+        }
+        Map<String, String> options = options(Arrays.copyOfRange(args, 1, args.length));
+        Path datasetFile = Path.of(options.getOrDefault("dataset", DATASET_FILE));
+
+        if (args[0].equals("generate")) {
+            Dataset dataset = Dataset.of(options);
+            try (Connection connection = DriverManager.getConnection(
+                    options.getOrDefault("url", "jdbc:postgresql://localhost:5432/shareit"),
+                    options.getOrDefault("username", "shareit"),
+                    options.getOrDefault("password", "shareit"))) {
+                DataGenerator generator = new DataGenerator(connection, dataset);
+                if (options.containsKey("schema")) {
+                    generator.createSchema();
+                }
+                generator.generate();
+            }
+            dataset.save(datasetFile);
+            return;
+        }
+
+        LoadDriver driver = new LoadDriver(
+                URI.create(options.getOrDefault("gateway", "http://localhost:8080")),
+                URI.create(options.getOrDefault("server", "http://localhost:9090")),
+                Dataset.load(datasetFile));
+        List<Endpoint> endpoints = Arrays.stream(options.getOrDefault("endpoints", Endpoint.READS).split(","))
+                .map(String::trim)
+                .map(Endpoint::of)
+                .toList();
+        List<LoadDriver.Result> results = driver.run(endpoints,
+                Integer.parseInt(options.getOrDefault("rps", "100")),
+                duration(options.getOrDefault("warmup", "5s")),
+                duration(options.getOrDefault("duration", "30s")));
+        if (options.containsKey("report")) {
+            LoadDriver.writeCsv(results, Path.of(options.get("report")));
+        }
+    }
+
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    // 30s, 2m или ISO-8601 (PT30S)
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
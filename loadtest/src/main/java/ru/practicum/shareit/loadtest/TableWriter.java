@@ -0,0 +1,119 @@
+package ru.practicum.shareit.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+// Построчная запись в таблицу: в PostgreSQL — COPY ... FROM STDIN порциями CSV, в H2 — пачками INSERT
+interface TableWriter extends AutoCloseable {
+
+    void row(Object... values) throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    static TableWriter open(Connection connection, String table, String... columns) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new Copy(connection.unwrap(PGConnection.class).getCopyAPI(), table, columns);
+        }
+        return new Batch(connection, table, columns);
+    }
+
+    final class Copy implements TableWriter {
+        private static final int CHUNK_CHARS = 8 << 20;
+
+        private final CopyManager copyManager;
+        private final String sql;
+        private final StringBuilder buffer = new StringBuilder();
+
+        Copy(CopyManager copyManager, String table, String... columns) {
+            this.copyManager = copyManager;
+            this.sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                appendValue(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= CHUNK_CHARS) {
+                flush();
+            }
+        }
+
+        // пустое значение без кавычек в CSV-режиме COPY — NULL
+        private void appendValue(Object value) {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.isEmpty() || text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                buffer.append(text);
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            try {
+                copyManager.copyIn(sql, new StringReader(buffer.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY failed: " + sql, e);
+            }
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+        }
+    }
+
+    final class Batch implements TableWriter {
+        private static final int BATCH_SIZE = 1000;
+
+        private final PreparedStatement statement;
+        private int pending;
+
+        Batch(Connection connection, String table, String... columns) throws SQLException {
+            this.statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                    + ") VALUES (" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")");
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i] instanceof LocalDateTime dateTime
+                        ? Timestamp.valueOf(dateTime) : values[i]);
+            }
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+            statement.close();
+        }
+    }
+}
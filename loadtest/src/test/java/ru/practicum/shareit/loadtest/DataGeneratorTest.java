@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+class DataGeneratorTest {
+    private static final Dataset DATASET = Dataset.of(Map.of(
+            "users", "50", "owners", "10", "items-per-owner", "3", "requests", "20", "bookings", "600"));
+
+    @Test
+    void generate_shouldLoadDatasetIntoH2WithBatches() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:loadtest", "sa", "")) {
+            generate(connection);
+        }
+    }
+
+    @Test
+    void generate_shouldLoadDatasetIntoPostgresWithCopy() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            generate(connection);
+            // COPY проходит через триггеры row_version и ограничение исключения для подтверждённых бронирований
+            assertThat(count(connection, "select count(*) from bookings where row_version is null"), equalTo(0L));
+        }
+    }
+
+    private static void generate(Connection connection) throws SQLException {
+        DataGenerator generator = new DataGenerator(connection, DATASET);
+        generator.createSchema();
+        generator.generate();
+
+        assertThat(count(connection, "select count(*) from users"), equalTo(50L));
+        assertThat(count(connection, "select count(*) from requests"), equalTo(20L));
+        assertThat(count(connection, "select count(*) from items"), equalTo(30L));
+        assertThat(count(connection, "select count(*) from bookings"), equalTo(600L));
+        assertThat(count(connection, "select count(*) from comments"), greaterThan(0L));
+        assertThat(count(connection, "select count(*) from bookings b join items i on i.id = b.item_id " +
+                "where b.booker_id = i.owner_id"), equalTo(0L));
+        assertThat(count(connection, "select count(*) from bookings a join bookings b " +
+                "on a.item_id = b.item_id and a.id < b.id and a.start_date < b.end_date and b.start_date < a.end_date " +
+                "where a.status = 'APPROVED' and b.status = 'APPROVED'"), equalTo(0L));
+        // новые строки приложения получат id за сгенерированными
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (name, email) values ('New', 'new@loadtest.local')");
+        }
+        assertThat(count(connection, "select max(id) from users"), greaterThanOrEqualTo(51L));
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// Занятые интервалы вещей (ожидающие и подтверждённые бронирования) в памяти.
+// Чтение без блокировок: интервалы вещи хранятся в неизменяемых отсортированных массивах.
+// Закончившиеся интервалы отбрасываются при каждом перестроении массива вещи, поэтому о периодах,
+// начавшихся в прошлом, спрашивается база
+@Component
+@Slf4j
+public class BookingAvailabilityIndex {
+    private static final List<BookingStatus> BUSY_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    // изменения по одной вещи идут через compute, перестроение индекса их исключает
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<Long, Intervals> intervals = new ConcurrentHashMap<>();
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onBookingSaved(BookingSavedEvent event) {
+        put(event.getBooking());
+    }
+
+    // удаление пользователя каскадно удаляет его бронирования и бронирования его вещей
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime started = LocalDateTime.now();
+            Map<Long, List<ItemBookingDto>> byItem = bookingRepository
+                    .findIntervalsByStatusInEndingAfter(BUSY_STATUSES, started).stream()
+                    .collect(Collectors.groupingBy(ItemBookingDto::getItemId));
+            long now = toMillis(started);
+            Map<Long, Intervals> rebuilt = new ConcurrentHashMap<>(byItem.size() * 2);
+            byItem.forEach((itemId, bookings) -> {
+                Intervals item = Intervals.of(bookings).endingAfter(now);
+                if (item.size() > 0) {
+                    rebuilt.put(itemId, item);
+                }
+            });
+            intervals = rebuilt;
+            log.info("Booking availability index rebuilt: {} items, {} bookings",
+                    rebuilt.size(), rebuilt.values().stream().mapToInt(Intervals::size).sum());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        boolean busy = BUSY_STATUSES.contains(booking.getStatus());
+        long now = toMillis(LocalDateTime.now());
+        lock.readLock().lock();
+        try {
+            intervals.compute(itemId, (id, current) -> {
+                Intervals updated = current == null ? Intervals.EMPTY : current.without(booking.getId());
+                if (busy) {
+                    updated = updated.with(booking.getId(), toMillis(booking.getStart()), toMillis(booking.getEnd()));
+                }
+                updated = updated.endingAfter(now);
+                return updated.size() == 0 ? null : updated;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isAvailable(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(LocalDateTime.now())) {
+            return bookingRepository.findBusyItemIds(List.of(itemId), BUSY_STATUSES, from, to).isEmpty();
+        }
+        Intervals item = intervals.get(itemId);
+        return item == null || !item.overlaps(toMillis(from), toMillis(to));
+    }
+
+    public Set<Long> findAvailable(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(LocalDateTime.now())) {
+            Set<Long> free = new HashSet<>(itemIds);
+            if (!free.isEmpty()) {
+                bookingRepository.findBusyItemIds(itemIds, BUSY_STATUSES, from, to).forEach(free::remove);
+            }
+            return free;
+        }
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+        Map<Long, Intervals> snapshot = intervals;
+        return itemIds.stream()
+                .filter(itemId -> {
+                    Intervals item = snapshot.get(itemId);
+                    return item == null || !item.overlaps(fromMillis, toMillis);
+                })
+                .collect(Collectors.toSet());
+    }
+
+    // число интервалов вещи в индексе, для тестов
+    int size(Long itemId) {
+        Intervals item = intervals.get(itemId);
+        return item == null ? 0 : item.size();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // Интервалы [start, end) одной вещи по возрастанию начала; maxEnds[i] — наибольший конец среди первых i + 1
+    private static final class Intervals {
+        static final Intervals EMPTY = new Intervals(new long[0], new long[0], new long[0]);
+
+        final long[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] maxEnds;
+
+        Intervals(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        static Intervals of(List<ItemBookingDto> bookings) {
+            List<ItemBookingDto> sorted = new ArrayList<>(bookings);
+            sorted.sort(Comparator.comparing(ItemBookingDto::getStart));
+            long[] ids = new long[sorted.size()];
+            long[] starts = new long[sorted.size()];
+            long[] ends = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                ids[i] = sorted.get(i).getId();
+                starts[i] = toMillis(sorted.get(i).getStart());
+                ends[i] = toMillis(sorted.get(i).getEnd());
+            }
+            return new Intervals(ids, starts, ends);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        // среди интервалов, начавшихся до to, ищется заканчивающийся после from
+        boolean overlaps(long from, long to) {
+            int startedBefore = lowerBound(starts, to);
+            return startedBefore > 0 && maxEnds[startedBefore - 1] > from;
+        }
+
+        Intervals with(long id, long start, long end) {
+            int index = lowerBound(starts, start);
+            return new Intervals(insert(ids, index, id), insert(starts, index, start), insert(ends, index, end));
+        }
+
+        Intervals without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return new Intervals(delete(ids, i), delete(starts, i), delete(ends, i));
+                }
+            }
+            return this;
+        }
+
+        // интервалы, закончившиеся до now, больше не влияют на бронирование и только удлиняют массивы
+        Intervals endingAfter(long now) {
+            int kept = 0;
+            for (long end : ends) {
+                if (end >= now) {
+                    kept++;
+                }
+            }
+            if (kept == ends.length) {
+                return this;
+            }
+            long[] keptIds = new long[kept];
+            long[] keptStarts = new long[kept];
+            long[] keptEnds = new long[kept];
+            int index = 0;
+            for (int i = 0; i < ends.length; i++) {
+                if (ends[i] >= now) {
+                    keptIds[index] = ids[i];
+                    keptStarts[index] = starts[i];
+                    keptEnds[index] = ends[i];
+                    index++;
+                }
+            }
+            return new Intervals(keptIds, keptStarts, keptEnds);
+        }
+
+        private static int lowerBound(long[] values, long value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static long[] insert(long[] values, int index, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(values, index, result, index + 1, values.length - index);
+            return result;
+        }
+
+        private static long[] delete(long[] values, int index) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.item.model.Item;
+
+// Всё, что нужно проверить перед созданием бронирования, одним запросом:
+// вещь (владелец, доступность), найден ли бронирующий и число пересечений с подтверждёнными бронированиями
+public interface BookingCheck {
+    Item getItem();
+
+    Long getBookers();
+
+    Long getOverlaps();
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,6 +27,13 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDto);
     }
 
+    // записи пакета создаются в одной транзакции, результат каждой — в ответе под её индексом
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody BookingBatchCreateDto batchDto) {
+        return bookingService.createBookings(userId, batchDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable Long bookingId,
@@ -37,15 +49,34 @@ public class BookingController {
 
     @GetMapping
     public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state) {
+                                            @RequestParam(defaultValue = "ALL") String state,
+                                            @RequestParam(defaultValue = "0") Integer from,
+                                            @RequestParam(defaultValue = "10") Integer size,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                                            @RequestParam(required = false) Long cursorId,
+                                            WebRequest request) {
         BookingState bookingState = BookingState.valueOf(state.toUpperCase());
-        return bookingService.getUserBookings(userId, bookingState);
+        // ETag по версии бронирований пользователя: при совпадении сам список не запрашивается
+        if (request.checkNotModified(bookingService.getUserBookingsVersion(userId))) {
+            return null;
+        }
+        return bookingService.getUserBookings(userId, bookingState, from, size, cursorStart, cursorId);
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(defaultValue = "ALL") String state) {
+                                             @RequestParam(defaultValue = "ALL") String state,
+                                             @RequestParam(defaultValue = "0") Integer from,
+                                             @RequestParam(defaultValue = "10") Integer size,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+                                             @RequestParam(required = false) Long cursorId,
+                                             WebRequest request) {
         BookingState bookingState = BookingState.valueOf(state.toUpperCase());
-        return bookingService.getOwnerBookings(userId, bookingState);
+        if (request.checkNotModified(bookingService.getOwnerBookingsVersion(userId))) {
+            return null;
+        }
+        return bookingService.getOwnerBookings(userId, bookingState, from, size, cursorStart, cursorId);
     }
 }
\ No newline at end of file
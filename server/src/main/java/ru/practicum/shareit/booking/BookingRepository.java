@@ -1,45 +1,104 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.VersionToken;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
+    Window<Booking> findByBookerId(Long bookerId, ScrollPosition position, Limit limit, Sort sort);
 
-    @Query("select b from Booking b " +
-            "where b.booker.id = ?1 " +
-            "and b.start < ?2 " +
-            "and b.end > ?2")
-    List<Booking> findCurrentBookingsByBooker(Long bookerId, LocalDateTime now, Sort sort);
+    Window<Booking> findByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime start, LocalDateTime end,
+                                                            ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Sort sort);
+    Window<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime end,
+                                               ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Sort sort);
+    Window<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime start,
+                                                ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
+    Window<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status,
+                                            ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByItemOwner(Long ownerId, Sort sort);
+    Window<Booking> findByItemOwner(Long ownerId, ScrollPosition position, Limit limit, Sort sort);
 
-    @Query("select b from Booking b " +
-            "where b.item.owner = ?1 " +
-            "and b.start < ?2 " +
-            "and b.end > ?2")
-    List<Booking> findCurrentBookingsByOwner(Long ownerId, LocalDateTime now, Sort sort);
+    Window<Booking> findByItemOwnerAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime start, LocalDateTime end,
+                                                             ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByItemOwnerAndEndBefore(Long ownerId, LocalDateTime now, Sort sort);
+    Window<Booking> findByItemOwnerAndEndBefore(Long ownerId, LocalDateTime end,
+                                                ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByItemOwnerAndStartAfter(Long ownerId, LocalDateTime now, Sort sort);
+    Window<Booking> findByItemOwnerAndStartAfter(Long ownerId, LocalDateTime start,
+                                                 ScrollPosition position, Limit limit, Sort sort);
 
-    List<Booking> findByItemOwnerAndStatus(Long ownerId, BookingStatus status, Sort sort);
+    Window<Booking> findByItemOwnerAndStatus(Long ownerId, BookingStatus status,
+                                             ScrollPosition position, Limit limit, Sort sort);
 
     List<Booking> findByItemId(Long itemId, Sort sort);
 
+    // для ETag: пользователь (проверка существования) и его бронирования вместе с вещами
+    @Query(value = "select 0 as source, count(*) as total, coalesce(max(u.id), 0) as lastId, " +
+            "coalesce(sum(u.row_version), 0) as versions, 0 as started, 0 as ended " +
+            "from users u where u.id = ?1 " +
+            "union all " +
+            "select 1, count(*), coalesce(max(b.id), 0), coalesce(sum(b.row_version + i.row_version), 0), " +
+            "coalesce(sum(case when b.start_date <= ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end_date < ?2 then 1 else 0 end), 0) " +
+            "from bookings b join items i on i.id = b.item_id " +
+            "where b.booker_id = ?1 " +
+            "order by source", nativeQuery = true)
+    List<VersionToken> findBookerVersion(Long userId, LocalDateTime now);
+
+    // для ETag: владелец и бронирования его вещей
+    @Query(value = "select 0 as source, count(*) as total, coalesce(max(u.id), 0) as lastId, " +
+            "coalesce(sum(u.row_version), 0) as versions, 0 as started, 0 as ended " +
+            "from users u where u.id = ?1 " +
+            "union all " +
+            "select 1, count(*), coalesce(max(b.id), 0), coalesce(sum(b.row_version + i.row_version), 0), " +
+            "coalesce(sum(case when b.start_date <= ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end_date < ?2 then 1 else 0 end), 0) " +
+            "from bookings b join items i on i.id = b.item_id " +
+            "where i.owner_id = ?1 " +
+            "order by source", nativeQuery = true)
+    List<VersionToken> findOwnerVersion(Long userId, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(" +
+            "r.itemId, r.id, r.bookerId, r.bookingStart, r.bookingEnd) " +
+            "from (select b.item.id as itemId, b.id as id, b.booker.id as bookerId, " +
+            "b.start as bookingStart, b.end as bookingEnd, " +
+            "row_number() over (partition by b.item.id order by b.start desc, b.id desc) as rn " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status <> 'REJECTED' " +
+            "and b.start <= ?2) r " +
+            "where r.rn = 1")
+    List<ItemBookingDto> findLastBookings(List<Long> itemIds, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(" +
+            "r.itemId, r.id, r.bookerId, r.bookingStart, r.bookingEnd) " +
+            "from (select b.item.id as itemId, b.id as id, b.booker.id as bookerId, " +
+            "b.start as bookingStart, b.end as bookingEnd, " +
+            "row_number() over (partition by b.item.id order by b.start asc, b.id asc) as rn " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status <> 'REJECTED' " +
+            "and b.start > ?2) r " +
+            "where r.rn = 1")
+    List<ItemBookingDto> findNextBookings(List<Long> itemIds, LocalDateTime now);
+
     @Query("select case when count(b) > 0 then true else false end " +
             "from Booking b " +
             "where b.booker.id = ?1 " +
@@ -48,10 +107,44 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.status = 'APPROVED'")
     boolean existsCompletedBookingByBookerAndItem(Long bookerId, Long itemId, LocalDateTime now);
 
+    // пересечения при включённом ограничении исключения проверяет база при подтверждении
+    @Query("select i as item, (select count(u) from User u where u.id = ?1) as bookers, 0L as overlaps " +
+            "from Item i where i.id = ?2")
+    Optional<BookingCheck> findBookingCheck(Long userId, Long itemId);
+
+    // строка вещи блокируется (SELECT ... FOR UPDATE) тем же запросом, что считает пересечения
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i as item, (select count(u) from User u where u.id = ?1) as bookers, " +
+            "(select count(b) from Booking b where b.item.id = i.id and b.status = 'APPROVED' " +
+            "and b.start < ?4 and b.end > ?3) as overlaps " +
+            "from Item i where i.id = ?2")
+    Optional<BookingCheck> findBookingCheckForUpdate(Long userId, Long itemId, LocalDateTime start, LocalDateTime end);
+
     @Query("select b from Booking b " +
             "where b.item.id = ?1 " +
             "and b.status = 'APPROVED' " +
             "and b.start < ?3 " +
             "and b.end > ?2")
     List<Booking> findOverlappingBookings(Long itemId, LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status = 'APPROVED' " +
+            "and b.end > ?2")
+    List<ItemBookingDto> findApprovedIntervals(List<Long> itemIds, LocalDateTime from);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.status in ?1 " +
+            "and b.end > ?2")
+    List<ItemBookingDto> findIntervalsByStatusInEndingAfter(List<BookingStatus> statuses, LocalDateTime now);
+
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.status in ?2 " +
+            "and b.start < ?4 " +
+            "and b.end > ?3")
+    List<Long> findBusyItemIds(Collection<Long> itemIds, List<BookingStatus> statuses,
+                               LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingSavedEvent {
+    private Booking booking;
+}
@@ -1,19 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, BookingCreateDto bookingDto);
 
+    List<BookingBatchResultDto> createBookings(Long userId, BookingBatchCreateDto batchDto);
+
     BookingDto updateBookingStatus(Long userId, Long bookingId, Boolean approved);
 
     BookingDto getBooking(Long userId, Long bookingId);
 
-    List<BookingDto> getUserBookings(Long userId, BookingState state);
+    List<BookingDto> getUserBookings(Long userId, BookingState state, Integer from, Integer size,
+                                     LocalDateTime cursorStart, Long cursorId);
+
+    List<BookingDto> getOwnerBookings(Long userId, BookingState state, Integer from, Integer size,
+                                      LocalDateTime cursorStart, Long cursorId);
+
+    String getUserBookingsVersion(Long userId);
 
-    List<BookingDto> getOwnerBookings(Long userId, BookingState state);
+    String getOwnerBookingsVersion(Long userId);
 }
\ No newline at end of file
@@ -1,72 +1,169 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.VersionToken;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Пересечения подтверждённых бронирований проверяет ограничение исключения в PostgreSQL
+    @Value("${shareit.booking.overlap-constraint:false}")
+    private boolean overlapConstraint;
 
     @Override
     @Transactional
     public BookingDto createBooking(Long userId, BookingCreateDto bookingDto) {
-        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) ||
-                bookingDto.getEnd().equals(bookingDto.getStart())) {
-            throw new IllegalArgumentException("End date must be after start date");
+        validatePeriod(bookingDto);
+
+        // Без ограничения исключения бронирования одной вещи выполняются под блокировкой её строки
+        BookingCheck check = (overlapConstraint
+                ? bookingRepository.findBookingCheck(userId, bookingDto.getItemId())
+                : bookingRepository.findBookingCheckForUpdate(userId, bookingDto.getItemId(),
+                        bookingDto.getStart(), bookingDto.getEnd()))
+                .orElseThrow(() -> entityCache.userExists(userId)
+                        ? new NotFoundException("Item with id " + bookingDto.getItemId() + " not found")
+                        : new NotFoundException("User with id " + userId + " not found"));
+
+        if (check.getBookers() == 0) {
+            throw new NotFoundException("User with id " + userId + " not found");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+        Item item = check.getItem();
+        validateItem(userId, item, check.getOverlaps());
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Item with id " + bookingDto.getItemId() + " not found"));
+        // бронирующему в ответе нужен только идентификатор, поэтому строка пользователя не читается
+        User user = userRepository.getReferenceById(userId);
+        Booking booking = BookingMapper.toBooking(bookingDto, item, user);
+        Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingSavedEvent(savedBooking));
 
-        if (!item.getAvailable()) {
-            throw new IllegalArgumentException("Item is not available for booking");
-        }
+        return BookingMapper.toBookingDto(savedBooking);
+    }
 
-        if (item.getOwner().equals(userId)) {
-            throw new ForbiddenException("Owner cannot book their own item");
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, BookingBatchCreateDto batchDto) {
+        if (batchDto.getBookings() == null || batchDto.getBookings().isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one booking");
+        }
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
         }
 
-        List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                item.getId(),
-                bookingDto.getStart(),
-                bookingDto.getEnd()
-        );
+        List<BookingCreateDto> bookingDtos = batchDto.getBookings();
+        List<Long> itemIds = bookingDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
 
-        if (!overlappingBookings.isEmpty()) {
-            throw new IllegalArgumentException("Item is already booked for this period");
+        // Строки вещей блокируются одним запросом в порядке id, чтобы встречные пакеты не ждали друг друга по кругу;
+        // подтверждённые бронирования этих вещей читаются тоже одним запросом
+        Map<Long, Item> items = (overlapConstraint
+                ? itemRepository.findAllById(itemIds)
+                : itemRepository.findAllByIdForUpdate(itemIds)).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        LocalDateTime from = bookingDtos.stream()
+                .map(BookingCreateDto::getStart)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+        Map<Long, List<ItemBookingDto>> approved = overlapConstraint || items.isEmpty() || from == null
+                ? Map.of()
+                : bookingRepository.findApprovedIntervals(List.copyOf(items.keySet()), from).stream()
+                .collect(Collectors.groupingBy(ItemBookingDto::getItemId));
+
+        User user = userRepository.getReferenceById(userId);
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingCreateDto bookingDto = bookingDtos.get(i);
+            try {
+                validatePeriod(bookingDto);
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Item with id " + bookingDto.getItemId() + " not found");
+                }
+                long overlaps = approved.getOrDefault(item.getId(), List.of()).stream()
+                        .filter(b -> b.getStart().isBefore(bookingDto.getEnd()) && b.getEnd().isAfter(bookingDto.getStart()))
+                        .count();
+                validateItem(userId, item, overlaps);
+                bookings.add(BookingMapper.toBooking(bookingDto, item, user));
+                indexes.add(i);
+            } catch (NotFoundException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.NOT_FOUND.value(), null, e.getMessage());
+            } catch (ForbiddenException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.FORBIDDEN.value(), null, e.getMessage());
+            } catch (ConflictException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.CONFLICT.value(), null, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.BAD_REQUEST.value(), null, e.getMessage());
+            }
         }
 
-        Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        Booking savedBooking = bookingRepository.save(booking);
+        // id берутся из пула последовательности, поэтому вставки уходят пачками hibernate.jdbc.batch_size при сбросе
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < savedBookings.size(); i++) {
+            Booking savedBooking = savedBookings.get(i);
+            eventPublisher.publishEvent(new BookingSavedEvent(savedBooking));
+            results[indexes.get(i)] = new BookingBatchResultDto(indexes.get(i), HttpStatus.CREATED.value(),
+                    BookingMapper.toBookingDto(savedBooking), null);
+        }
 
-        return BookingMapper.toBookingDto(savedBooking);
+        return List.of(results);
     }
 
     @Override
     @Transactional
     public BookingDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
+        if (!overlapConstraint) {
+            itemRepository.findByBookingIdForUpdate(bookingId);
+        }
+
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking with id " + bookingId + " not found"));
 
@@ -78,8 +175,22 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("Booking status is already processed");
         }
 
+        if (approved && !overlapConstraint && !bookingRepository.findOverlappingBookings(
+                booking.getItem().getId(), booking.getStart(), booking.getEnd()).isEmpty()) {
+            throw new ConflictException("Item is already booked for this period");
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking;
+        try {
+            updatedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ConflictException("Item is already booked for this period");
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(new BookingSavedEvent(updatedBooking));
 
         return BookingMapper.toBookingDto(updatedBooking);
     }
@@ -98,20 +209,26 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long userId, BookingState state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+    public List<BookingDto> getUserBookings(Long userId, BookingState state, Integer from, Integer size,
+                                            LocalDateTime cursorStart, Long cursorId) {
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        ScrollPosition position = toScrollPosition(from, cursorStart, cursorId);
+        Limit limit = Limit.of(size);
         LocalDateTime now = LocalDateTime.now();
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findByBookerId(userId, sort);
-            case CURRENT -> bookingRepository.findCurrentBookingsByBooker(userId, now, sort);
-            case PAST -> bookingRepository.findByBookerIdAndEndBefore(userId, now, sort);
-            case FUTURE -> bookingRepository.findByBookerIdAndStartAfter(userId, now, sort);
-            case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, sort);
-            case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, sort);
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findByBookerId(userId, position, limit, SORT);
+            case CURRENT -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(userId, now, now,
+                    position, limit, SORT);
+            case PAST -> bookingRepository.findByBookerIdAndEndBefore(userId, now, position, limit, SORT);
+            case FUTURE -> bookingRepository.findByBookerIdAndStartAfter(userId, now, position, limit, SORT);
+            case WAITING -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING,
+                    position, limit, SORT);
+            case REJECTED -> bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED,
+                    position, limit, SORT);
         };
 
         return bookings.stream()
@@ -120,24 +237,91 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long userId, BookingState state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+    public List<BookingDto> getOwnerBookings(Long userId, BookingState state, Integer from, Integer size,
+                                             LocalDateTime cursorStart, Long cursorId) {
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        ScrollPosition position = toScrollPosition(from, cursorStart, cursorId);
+        Limit limit = Limit.of(size);
         LocalDateTime now = LocalDateTime.now();
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findByItemOwner(userId, sort);
-            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(userId, now, sort);
-            case PAST -> bookingRepository.findByItemOwnerAndEndBefore(userId, now, sort);
-            case FUTURE -> bookingRepository.findByItemOwnerAndStartAfter(userId, now, sort);
-            case WAITING -> bookingRepository.findByItemOwnerAndStatus(userId, BookingStatus.WAITING, sort);
-            case REJECTED -> bookingRepository.findByItemOwnerAndStatus(userId, BookingStatus.REJECTED, sort);
+        Window<Booking> bookings = switch (state) {
+            case ALL -> bookingRepository.findByItemOwner(userId, position, limit, SORT);
+            case CURRENT -> bookingRepository.findByItemOwnerAndStartBeforeAndEndAfter(userId, now, now,
+                    position, limit, SORT);
+            case PAST -> bookingRepository.findByItemOwnerAndEndBefore(userId, now, position, limit, SORT);
+            case FUTURE -> bookingRepository.findByItemOwnerAndStartAfter(userId, now, position, limit, SORT);
+            case WAITING -> bookingRepository.findByItemOwnerAndStatus(userId, BookingStatus.WAITING,
+                    position, limit, SORT);
+            case REJECTED -> bookingRepository.findByItemOwnerAndStatus(userId, BookingStatus.REJECTED,
+                    position, limit, SORT);
         };
 
         return bookings.stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @Override
+    public String getUserBookingsVersion(Long userId) {
+        return toEtag(userId, bookingRepository.findBookerVersion(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    public String getOwnerBookingsVersion(Long userId) {
+        return toEtag(userId, bookingRepository.findOwnerVersion(userId, LocalDateTime.now()));
+    }
+
+    // первая строка сводки — сам пользователь: без неё отвечаем 404, как и при запросе списка
+    private static String toEtag(Long userId, List<VersionToken> tokens) {
+        if (tokens.get(0).getTotal() == 0) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
+        return VersionToken.etag(tokens);
+    }
+
+    private static void validatePeriod(BookingCreateDto bookingDto) {
+        if (bookingDto.getItemId() == null || bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new IllegalArgumentException("Item id, start and end dates are required");
+        }
+        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) ||
+                bookingDto.getEnd().equals(bookingDto.getStart())) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+    }
+
+    private static void validateItem(Long userId, Item item, long overlaps) {
+        if (!item.getAvailable()) {
+            throw new IllegalArgumentException("Item is not available for booking");
+        }
+
+        if (item.getOwner().equals(userId)) {
+            throw new ForbiddenException("Owner cannot book their own item");
+        }
+
+        if (overlaps > 0) {
+            throw new ConflictException("Item is already booked for this period");
+        }
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+    // Курсор (start, id) включает keyset-пагинацию, иначе используется смещение from
+    private static ScrollPosition toScrollPosition(Integer from, LocalDateTime cursorStart, Long cursorId) {
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("Parameters cursorStart and cursorId must be set together");
+        }
+        if (cursorStart != null) {
+            return ScrollPosition.forward(Map.of("start", cursorStart, "id", cursorId));
+        }
+        if (from < 0) {
+            throw new IllegalArgumentException("Parameter from must not be negative");
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+    }
+}
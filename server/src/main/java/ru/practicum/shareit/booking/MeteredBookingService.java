@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.common.ServiceTimer;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Время и ошибки методов BookingService, см. ServiceTimer. Списки бронирований размечены тегом state:
+// каждое состояние выполняется своим запросом к базе
+@Service
+@Primary
+public class MeteredBookingService implements BookingService {
+    private static final String SERVICE = "BookingService";
+
+    private final BookingService delegate;
+    private final ServiceTimer createBooking;
+    private final ServiceTimer createBookings;
+    private final ServiceTimer updateBookingStatus;
+    private final ServiceTimer getBooking;
+    private final Map<BookingState, ServiceTimer> getUserBookings;
+    private final Map<BookingState, ServiceTimer> getOwnerBookings;
+    private final ServiceTimer getUserBookingsVersion;
+    private final ServiceTimer getOwnerBookingsVersion;
+
+    public MeteredBookingService(BookingServiceImpl delegate, MeterRegistry registry, Tracer tracer) {
+        this.delegate = delegate;
+        this.createBooking = new ServiceTimer(registry, tracer, SERVICE, "createBooking");
+        this.createBookings = new ServiceTimer(registry, tracer, SERVICE, "createBookings");
+        this.updateBookingStatus = new ServiceTimer(registry, tracer, SERVICE, "updateBookingStatus");
+        this.getBooking = new ServiceTimer(registry, tracer, SERVICE, "getBooking");
+        this.getUserBookings = byState(registry, tracer, "getUserBookings");
+        this.getOwnerBookings = byState(registry, tracer, "getOwnerBookings");
+        this.getUserBookingsVersion = new ServiceTimer(registry, tracer, SERVICE, "getUserBookingsVersion");
+        this.getOwnerBookingsVersion = new ServiceTimer(registry, tracer, SERVICE, "getOwnerBookingsVersion");
+    }
+
+    private static Map<BookingState, ServiceTimer> byState(MeterRegistry registry, Tracer tracer, String method) {
+        Map<BookingState, ServiceTimer> timers = new EnumMap<>(BookingState.class);
+        for (BookingState state : BookingState.values()) {
+            timers.put(state, new ServiceTimer(registry, tracer, SERVICE, method, state.name()));
+        }
+        return timers;
+    }
+
+    @Override
+    public BookingDto createBooking(Long userId, BookingCreateDto bookingDto) {
+        return createBooking.record(() -> delegate.createBooking(userId, bookingDto));
+    }
+
+    @Override
+    public List<BookingBatchResultDto> createBookings(Long userId, BookingBatchCreateDto batchDto) {
+        return createBookings.record(() -> delegate.createBookings(userId, batchDto));
+    }
+
+    @Override
+    public BookingDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
+        return updateBookingStatus.record(() -> delegate.updateBookingStatus(userId, bookingId, approved));
+    }
+
+    @Override
+    public BookingDto getBooking(Long userId, Long bookingId) {
+        return getBooking.record(() -> delegate.getBooking(userId, bookingId));
+    }
+
+    @Override
+    public List<BookingDto> getUserBookings(Long userId, BookingState state, Integer from, Integer size,
+                                            LocalDateTime cursorStart, Long cursorId) {
+        return getUserBookings.get(state).record(() -> delegate.getUserBookings(userId, state, from, size,
+                cursorStart, cursorId));
+    }
+
+    @Override
+    public List<BookingDto> getOwnerBookings(Long userId, BookingState state, Integer from, Integer size,
+                                             LocalDateTime cursorStart, Long cursorId) {
+        return getOwnerBookings.get(state).record(() -> delegate.getOwnerBookings(userId, state, from, size,
+                cursorStart, cursorId));
+    }
+
+    @Override
+    public String getUserBookingsVersion(Long userId) {
+        return getUserBookingsVersion.record(() -> delegate.getUserBookingsVersion(userId));
+    }
+
+    @Override
+    public String getOwnerBookingsVersion(Long userId) {
+        return getOwnerBookingsVersion.record(() -> delegate.getOwnerBookingsVersion(userId));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Результат одной записи пакета: status — код, который вернул бы POST /bookings для неё отдельно
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private Integer index;
+    private Integer status;
+    private BookingDto booking;
+    private String error;
+}
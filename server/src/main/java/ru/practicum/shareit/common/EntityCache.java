@@ -0,0 +1,62 @@
+package ru.practicum.shareit.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+
+// Проверка существования пользователя без обращения к базе и сброс кэшей при удалении пользователя.
+// Хранятся только найденные идентификаторы: идентификаторы не переиспользуются, а отсутствующий
+// пользователь может появиться в любой момент
+@Component
+public class EntityCache implements MeterBinder {
+    public static final String USER_EXISTENCE = "user-existence";
+
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Cache<Long, Boolean> existingUsers;
+
+    public EntityCache(UserRepository userRepository, EntityManagerFactory entityManagerFactory,
+                       @Value("${shareit.cache.entity.max-size:100000}") long maxSize,
+                       @Value("${shareit.cache.entity.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.existingUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // как и регионы Hibernate: пользователь может быть удалён в обход приложения
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public boolean userExists(Long userId) {
+        // загрузка под блокировкой ключа: сброс после удаления дождётся её и уберёт устаревшее значение
+        return existingUsers.get(userId, id -> userRepository.existsById(id) ? Boolean.TRUE : null) != null;
+    }
+
+    // после фиксации: иначе параллельный запрос успел бы вернуть в кэш ещё не удалённые строки
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        existingUsers.invalidate(event.getUserId());
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        cache.evict(User.class, event.getUserId());
+        // база каскадно удаляет вещи пользователя и вещи, созданные по его запросам, — их не перечислить
+        cache.evict(Item.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, existingUsers, USER_EXISTENCE);
+    }
+}
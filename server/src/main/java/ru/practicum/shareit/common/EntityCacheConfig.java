@@ -0,0 +1,46 @@
+package ru.practicum.shareit.common;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Регионы кэша второго уровня Hibernate: пользователи и вещи читаются почти в каждом запросе, а меняются редко
+@Configuration
+public class EntityCacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${shareit.cache.entity.max-size:100000}") long maxSize,
+                                           @Value("${shareit.cache.entity.ttl:PT10M}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // собственный менеджер на каждый контекст: менеджер по умолчанию общий для всей JVM
+        CacheManager cacheManager = provider.getCacheManager(URI.create("shareit:entity-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        for (String region : new String[]{USERS, ITEMS}) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            // страховка от изменений в обход Hibernate (каскадное удаление в базе, ручные правки)
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
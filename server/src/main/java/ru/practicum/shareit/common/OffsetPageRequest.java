@@ -0,0 +1,93 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// Страница с произвольным смещением from: PageRequest.of(from / size, size) округляет смещение
+// до кратного size, а списки бронирований и поиск по индексу в памяти пропускают ровно from строк
+public final class OffsetPageRequest implements Pageable {
+    private final long offset;
+    private final int size;
+    private final Sort sort;
+
+    private OffsetPageRequest(long offset, int size, Sort sort) {
+        this.offset = offset;
+        this.size = size;
+        this.sort = sort;
+    }
+
+    public static OffsetPageRequest of(Integer from, Integer size) {
+        return of(from, size, Sort.unsorted());
+    }
+
+    public static OffsetPageRequest of(Integer from, Integer size, Sort sort) {
+        if (from == null || from < 0) {
+            throw new IllegalArgumentException("Parameter from must not be negative");
+        }
+        if (size == null || size <= 0) {
+            throw new IllegalArgumentException("Parameter size must be positive");
+        }
+        return new OffsetPageRequest(from, size, sort);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - size), size, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof OffsetPageRequest other
+                && offset == other.offset && size == other.size && sort.equals(other.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(offset) * 31 * 31 + size * 31 + sort.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "OffsetPageRequest [offset: " + offset + ", size: " + size + ", sort: " + sort + "]";
+    }
+}
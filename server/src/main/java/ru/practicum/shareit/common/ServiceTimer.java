@@ -0,0 +1,99 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Таймер одного метода сервиса. Таймер успешных вызовов создаётся заранее, поэтому вызов не ищет его
+// в реестре; исключение записывается в таймер с тегом exception и в счётчик shareit.service.errors.
+// Гистограмма, SLO и перцентили настраиваются свойствами management.metrics.distribution.*.shareit.service.
+// Внутри трассы вызов оформляется span «Сервис.метод», под которым оказываются операторы SQL
+public final class ServiceTimer {
+    public static final String TIMER = "shareit.service";
+    public static final String ERRORS = "shareit.service.errors";
+    public static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final Tracer tracer;
+    private final String spanName;
+    private final String state;
+    private final Tags tags;
+    private final Timer success;
+
+    public ServiceTimer(MeterRegistry registry, Tracer tracer, String service, String method) {
+        this(registry, tracer, service, method, NONE);
+    }
+
+    public ServiceTimer(MeterRegistry registry, Tracer tracer, String service, String method, String state) {
+        this.registry = registry;
+        this.tracer = tracer;
+        this.spanName = service + "." + method;
+        this.state = state;
+        this.tags = Tags.of("service", service, "method", method, "state", state);
+        this.success = timer(NONE);
+    }
+
+    public <T> T record(Supplier<T> call) {
+        Span span = startSpan();
+        long started = System.nanoTime();
+        T result;
+        try (Tracer.SpanInScope scope = span != null ? tracer.withSpan(span) : null) {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            failed(e, System.nanoTime() - started);
+            if (span != null) {
+                span.error(e);
+            }
+            throw e;
+        } finally {
+            if (span != null) {
+                span.end();
+            }
+        }
+        success.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    public void run(Runnable call) {
+        record(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Span startSpan() {
+        if (tracer.currentSpan() == null) {
+            return null;
+        }
+        Span span = tracer.nextSpan().name(spanName);
+        if (!NONE.equals(state)) {
+            span.tag("state", state);
+        }
+        return span.start();
+    }
+
+    private void failed(Throwable e, long nanos) {
+        String exception = e.getClass().getSimpleName();
+        timer(exception).record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder(ERRORS)
+                .description("Service method calls that ended with an exception")
+                .tags(tags)
+                .tag("exception", exception)
+                .register(registry)
+                .increment();
+    }
+
+    private Timer timer(String exception) {
+        return Timer.builder(TIMER)
+                .description("Service method latency")
+                .tags(tags)
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+// Обёртка пула соединений: каждый вызов execute* у операторов (пачка — один вызов) добавляет оператор
+// и время выполнения, а каждая строка, прочитанная через ResultSet.next(), — строку в SqlStatistics
+// текущего запроса. Внутри трассы вызов execute* оформляется дочерним span с текстом SQL.
+// Соединения, взятые вне HTTP-запроса и вне трассы, не оборачиваются; у обёрнутых перехватываются только создание
+// операторов, execute*, getResultSet и next, остальные вызовы и их результаты передаются как есть
+public class SqlCountingDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public SqlCountingDataSource(DataSource targetDataSource, ObjectProvider<Tracer> tracerProvider) {
+        super(targetDataSource);
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return SqlStatistics.current() == null && tracer().currentSpan() == null
+                ? connection
+                : proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // трассировщик запрашивается при первом обращении: соединения нужны уже при создании схемы
+    private Tracer tracer() {
+        Tracer current = tracer;
+        if (current == null) {
+            current = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+            tracer = current;
+        }
+        return current;
+    }
+
+    private Span startSpan(Method method, String sql) {
+        Tracer current = tracer();
+        if (current.currentSpan() == null) {
+            return null;
+        }
+        Span span = current.nextSpan().name("jdbc " + method.getName());
+        if (sql != null) {
+            span.tag("db.statement", sql);
+        }
+        return span.start();
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlCountingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    // sql — текст оператора, переданный в prepareStatement/prepareCall
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = SqlCountingDataSource.invoke(target, method, args);
+                return result instanceof ResultSet resultSet && name.equals("getResultSet")
+                        ? wrapResultSet(resultSet)
+                        : result;
+            }
+            SqlStatistics statistics = SqlStatistics.current();
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            Span span = startSpan(method, statementSql);
+            long started = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (span != null) {
+                    span.error(e.getCause());
+                }
+                throw e.getCause();
+            } finally {
+                if (statistics != null) {
+                    statistics.statement(System.nanoTime() - started);
+                }
+                if (span != null) {
+                    span.end();
+                }
+            }
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet) : result;
+        }
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet) {
+        return SqlStatistics.current() == null ? resultSet : proxy(ResultSet.class, new ResultSetHandler(resultSet));
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+
+        ResultSetHandler(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlCountingDataSource.invoke(target, method, args);
+            if (result == Boolean.TRUE && method.getName().equals("next")) {
+                SqlStatistics statistics = SqlStatistics.current();
+                if (statistics != null) {
+                    statistics.row();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Обёртка DataSource нужна и учёту SQL по запросам (SqlMetricsConfig), и span-ам операторов SQL,
+// поэтому подключается, пока включено хотя бы одно из них
+@Configuration
+@Conditional(SqlDataSourceConfig.MetricsOrTracingEnabled.class)
+public class SqlDataSourceConfig {
+
+    // static: постпроцессор создаётся до остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor sqlCountingDataSourcePostProcessor(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof SqlCountingDataSource)
+                        ? new SqlCountingDataSource(dataSource, tracer)
+                        : bean;
+            }
+        };
+    }
+
+    static class MetricsOrTracingEnabled extends AnyNestedCondition {
+        MetricsOrTracingEnabled() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(name = "shareit.sql-metrics.enabled", matchIfMissing = true)
+        static class Metrics {
+        }
+
+        @ConditionalOnProperty(name = "management.tracing.enabled", matchIfMissing = true)
+        static class Tracing {
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Учёт SQL по HTTP-запросам (см. SqlMetricsFilter), операторы считает обёртка из SqlDataSourceConfig;
+// отключается shareit.sql-metrics.enabled=false
+@Configuration
+@ConditionalOnProperty(name = "shareit.sql-metrics.enabled", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlMetricsFilter sqlMetricsFilter(MeterRegistry registry,
+                                             @Value("${shareit.sql-metrics.statement-threshold:20}") int threshold,
+                                             @Value("${shareit.sql-metrics.header:false}") boolean header,
+                                             @Value("${management.endpoints.web.base-path:/actuator}") String path) {
+        return new SqlMetricsFilter(registry, threshold, header, path);
+    }
+}
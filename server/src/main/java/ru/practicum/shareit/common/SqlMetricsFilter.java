@@ -0,0 +1,151 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Число SQL-операторов, время их выполнения и прочитанные строки по каждому HTTP-запросу:
+// метрики request.sql.* с тегами method и uri (шаблон пути), предупреждение в журнале и счётчик
+// request.sql.statements.exceeded при превышении порога и, по желанию, заголовки X-Sql-* в ответе
+@Slf4j
+public class SqlMetricsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+
+    private final MeterRegistry registry;
+    private final int statementThreshold;
+    private final boolean header;
+    private final String managementPath;
+
+    public SqlMetricsFilter(MeterRegistry registry, int statementThreshold, boolean header, String managementPath) {
+        this.registry = registry;
+        this.statementThreshold = statementThreshold;
+        this.header = header;
+        this.managementPath = managementPath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(managementPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        HeaderWriter headerWriter = header ? new HeaderWriter(response, statistics) : null;
+        try {
+            chain.doFilter(request, headerWriter != null ? headerWriter : response);
+        } finally {
+            SqlStatistics.stop();
+            if (headerWriter != null && !response.isCommitted()) {
+                headerWriter.writeHeaders();
+            }
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        String uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("request.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tags(tags)
+                .register(registry)
+                .record(statistics.getStatements());
+        Timer.builder("request.sql.time")
+                .description("Time spent executing SQL statements per HTTP request")
+                .tags(tags)
+                .register(registry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("request.sql.rows")
+                .description("Rows read from result sets per HTTP request")
+                .tags(tags)
+                .register(registry)
+                .record(statistics.getRows());
+        if (statementThreshold > 0 && statistics.getStatements() > statementThreshold) {
+            Counter.builder("request.sql.statements.exceeded")
+                    .description("HTTP requests that executed more SQL statements than the threshold")
+                    .tags(tags)
+                    .register(registry)
+                    .increment();
+            log.warn("{} {} executed {} SQL statements (threshold {})", request.getMethod(), uri,
+                    statistics.getStatements(), statementThreshold);
+        }
+    }
+
+    // заголовки должны попасть в ответ до первой записи тела, когда данные для него уже прочитаны
+    private static class HeaderWriter extends HttpServletResponseWrapper {
+        private final SqlStatistics statistics;
+        private boolean written;
+
+        HeaderWriter(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (written) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3fms", statistics.getNanos() / 1e6));
+            setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.common;
+
+// Счётчики SQL текущего HTTP-запроса. Запрос обрабатывается одним потоком, поэтому значения
+// хранятся в ThreadLocal без синхронизации; работа в других потоках (@Async) сюда не попадает
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private long rows;
+
+    static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statement(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void row() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
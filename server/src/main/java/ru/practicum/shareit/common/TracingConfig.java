@@ -0,0 +1,24 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Экспорт трасс в файл (shareit.tracing.file); экспорт в коллектор OTLP настраивает Spring Boot
+// по management.otlp.tracing.endpoint, оба экспортёра могут работать одновременно
+@Configuration
+@ConditionalOnProperty(name = "shareit.tracing.file")
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter fileSpanExporter(@Value("${shareit.tracing.file}") Path file, ObjectMapper mapper)
+            throws IOException {
+        return new FileSpanExporter(file, mapper);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.common;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Сводка по набору строк, из которого строится ответ: число строк, наибольший id,
+// сумма row_version (растёт при любом изменении) и счётчики бронирований, начавшихся
+// и закончившихся к текущему моменту (меняют состояние без изменения строк).
+// Вставка увеличивает lastId, удаление уменьшает total, изменение увеличивает versions
+public interface VersionToken {
+    Long getTotal();
+
+    Long getLastId();
+
+    Long getVersions();
+
+    Long getStarted();
+
+    Long getEnded();
+
+    static String etag(List<VersionToken> tokens) {
+        return tokens.stream()
+                .map(token -> String.join(".",
+                        Long.toString(token.getTotal(), 36),
+                        Long.toString(token.getLastId(), 36),
+                        Long.toString(token.getVersions(), 36),
+                        Long.toString(token.getStarted(), 36),
+                        Long.toString(token.getEnded(), 36)))
+                .collect(Collectors.joining("-"));
+    }
+}
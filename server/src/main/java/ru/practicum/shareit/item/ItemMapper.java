@@ -85,4 +85,13 @@ public class ItemMapper {
         comment.setCreated(LocalDateTime.now());
         return comment;
     }
-}
\ No newline at end of file
+
+    public static ItemWithBookingsDto.BookingShortDto toBookingShortDto(ItemBookingDto booking) {
+        return new ItemWithBookingsDto.BookingShortDto(
+                booking.getId(),
+                booking.getBookerId(),
+                booking.getStart(),
+                booking.getEnd()
+        );
+    }
+}
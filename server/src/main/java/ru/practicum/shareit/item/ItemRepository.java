@@ -1,23 +1,108 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.VersionToken;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwner(Long ownerId);
 
+    List<Item> findByAvailableTrueOrderById();
+
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by i.id")
+    List<Item> search(String text, Pageable pageable);
+
+    @Query(value = "select i.* from items i " +
+            "where i.is_available = true " +
+            "and i.search_vector @@ websearch_to_tsquery('simple', ?1) " +
+            "order by ts_rank(i.search_vector, websearch_to_tsquery('simple', ?1)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchRanked(String text, Pageable pageable);
+
+    // Вещи без подтверждённых бронирований, пересекающих период [start, end)
     @Query("select i from Item i " +
             "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> search(String text);
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and not exists (select b.id from Booking b " +
+            "where b.item = i " +
+            "and b.status = 'APPROVED' " +
+            "and b.start < ?3 " +
+            "and b.end > ?2) " +
+            "order by i.id")
+    List<Item> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "select i.* from items i " +
+            "where i.is_available = true " +
+            "and i.search_vector @@ websearch_to_tsquery('simple', ?1) " +
+            "and not exists (select 1 from bookings b " +
+            "where b.item_id = i.id " +
+            "and b.status = 'APPROVED' " +
+            "and b.start_date < ?3 " +
+            "and b.end_date > ?2) " +
+            "order by ts_rank(i.search_vector, websearch_to_tsquery('simple', ?1)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchRankedAvailable(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    // Блокировка строки вещи (SELECT ... FOR UPDATE) упорядочивает бронирования одной вещи
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllByIdForUpdate(List<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = (select b.item.id from Booking b where b.id = ?1)")
+    Optional<Item> findByBookingIdForUpdate(Long bookingId);
 
     List<Item> findByRequest(Long requestId);
 
     List<Item> findByRequestIn(List<Long> requestIds);
+
+    // для ETag карточки вещи: сама вещь, её бронирования и отзывы с именами авторов
+    @Query(value = "select 0 as source, count(*) as total, coalesce(max(i.id), 0) as lastId, " +
+            "coalesce(sum(i.row_version), 0) as versions, 0 as started, 0 as ended " +
+            "from items i where i.id = ?1 " +
+            "union all " +
+            "select 1, count(*), coalesce(max(b.id), 0), coalesce(sum(b.row_version), 0), " +
+            "coalesce(sum(case when b.start_date <= ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end_date < ?2 then 1 else 0 end), 0) " +
+            "from bookings b where b.item_id = ?1 " +
+            "union all " +
+            "select 2, count(*), coalesce(max(c.id), 0), coalesce(sum(c.row_version + u.row_version), 0), 0, 0 " +
+            "from comments c join users u on u.id = c.author_id where c.item_id = ?1 " +
+            "order by source", nativeQuery = true)
+    List<VersionToken> findItemVersion(Long itemId, LocalDateTime now);
+
+    // для ETag списка вещей владельца
+    @Query(value = "select 0 as source, count(*) as total, coalesce(max(i.id), 0) as lastId, " +
+            "coalesce(sum(i.row_version), 0) as versions, 0 as started, 0 as ended " +
+            "from items i where i.owner_id = ?1 " +
+            "union all " +
+            "select 1, count(*), coalesce(max(b.id), 0), coalesce(sum(b.row_version), 0), " +
+            "coalesce(sum(case when b.start_date <= ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end_date < ?2 then 1 else 0 end), 0) " +
+            "from bookings b join items i on i.id = b.item_id where i.owner_id = ?1 " +
+            "union all " +
+            "select 2, count(*), coalesce(max(c.id), 0), coalesce(sum(c.row_version + u.row_version), 0), 0, 0 " +
+            "from comments c join items i on i.id = c.item_id join users u on u.id = c.author_id " +
+            "where i.owner_id = ?1 " +
+            "order by source", nativeQuery = true)
+    List<VersionToken> findOwnerItemsVersion(Long ownerId, LocalDateTime now);
 }
\ No newline at end of file
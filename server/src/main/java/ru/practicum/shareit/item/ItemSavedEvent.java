@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.model.Item;
+
+@Data
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private Item item;
+}
@@ -0,0 +1,321 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemSearchIndexCheck;
+import ru.practicum.shareit.item.dto.ItemSearchIndexStats;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// Триграммный индекс доступных вещей: кандидаты берутся из пересечения списков
+// идентификаторов по триграммам запроса, затем проверяются на вхождение подстроки
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+
+    // карты заменяются целиком при перестроении, читаются и меняются под lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<Long, IndexedItem> items = new TreeMap<>();
+    private Map<Long, PostingList> postings = new HashMap<>();
+    // изменения, пришедшие во время загрузки вещей из базы; null, пока перестроения нет
+    private List<Item> pendingPuts;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.mode:SUBSTRING}") SearchMode searchMode) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == SearchMode.MEMORY;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (enabled) {
+            put(event.getItem());
+        }
+    }
+
+    // база каскадно удаляет вещи пользователя и вещи других владельцев, созданные по его запросам,
+    // поэтому индекс перестраивается целиком, как и индекс занятости
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // вещи загружаются и индексируются без блокировки, поиск ждёт только замены карт
+    public synchronized ItemSearchIndexStats rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingPuts = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        NavigableMap<Long, IndexedItem> rebuiltItems = new TreeMap<>();
+        Map<Long, PostingList> rebuiltPostings = new HashMap<>();
+        try {
+            itemRepository.findByAvailableTrueOrderById().forEach(item -> add(rebuiltItems, rebuiltPostings, item));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingPuts = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingPuts.forEach(item -> put(rebuiltItems, rebuiltPostings, item));
+            pendingPuts = null;
+            items = rebuiltItems;
+            postings = rebuiltPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ItemSearchIndexStats stats = stats();
+        log.info("Item search index rebuilt: {}", stats);
+        return stats;
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(items, postings, item);
+            if (pendingPuts != null) {
+                pendingPuts.add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Item> search(String text, int from, int size) {
+        String query = text.toUpperCase(Locale.ROOT);
+        List<Item> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (long id : candidates(query)) {
+                IndexedItem indexed = items.get(id);
+                if (!indexed.matches(query)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                    continue;
+                }
+                result.add(indexed.copy());
+                if (result.size() == size) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public ItemSearchIndexCheck check(String text) {
+        Set<Long> indexed = search(text, 0, Integer.MAX_VALUE).stream()
+                .map(Item::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<Long> stored = itemRepository.search(text, Pageable.unpaged()).stream()
+                .map(Item::getId)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<Long> missing = stored.stream()
+                .filter(id -> !indexed.contains(id))
+                .collect(Collectors.toList());
+        List<Long> unexpected = indexed.stream()
+                .filter(id -> !stored.contains(id))
+                .collect(Collectors.toList());
+
+        return new ItemSearchIndexCheck(text, missing.isEmpty() && unexpected.isEmpty(), missing, unexpected);
+    }
+
+    public ItemSearchIndexStats stats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                postingCount += list.size;
+                // ключ-триграмма, узел HashMap и массив идентификаторов
+                bytes += 16 + 48 + list.estimatedBytes();
+            }
+            for (IndexedItem indexed : items.values()) {
+                // ключ, узел TreeMap и копия вещи со строками в верхнем регистре
+                bytes += 16 + 40 + indexed.estimatedBytes();
+            }
+            return new ItemSearchIndexStats(enabled, items.size(), postings.size(), postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void put(NavigableMap<Long, IndexedItem> items, Map<Long, PostingList> postings, Item item) {
+        remove(items, postings, item.getId());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            add(items, postings, item);
+        }
+    }
+
+    private static void add(NavigableMap<Long, IndexedItem> items, Map<Long, PostingList> postings, Item item) {
+        IndexedItem indexed = new IndexedItem(item);
+        items.put(item.getId(), indexed);
+        for (long gram : indexed.grams) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(item.getId());
+        }
+    }
+
+    private static void remove(NavigableMap<Long, IndexedItem> items, Map<Long, PostingList> postings,
+                               Long itemId) {
+        IndexedItem indexed = items.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        for (long gram : indexed.grams) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private long[] candidates(String query) {
+        long[] grams = grams(query);
+        if (grams.length == 0) {
+            return items.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<PostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        PostingList shortest = lists.get(0);
+        long[] result = new long[shortest.size];
+        int count = 0;
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] grams(String... values) {
+        Set<Long> grams = new HashSet<>();
+        for (String value : values) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                grams.add(((long) value.charAt(i) << 32)
+                        | ((long) value.charAt(i + 1) << 16)
+                        | value.charAt(i + 2));
+            }
+        }
+        return grams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long stringBytes(String value) {
+        return 40 + 2L * value.length();
+    }
+
+    private static class IndexedItem {
+        final Item item;
+        final String upperName;
+        final String upperDescription;
+        final long[] grams;
+
+        IndexedItem(Item item) {
+            this.item = new Item(item.getId(), item.getName(), item.getDescription(),
+                    item.getAvailable(), item.getOwner(), item.getRequest());
+            this.upperName = item.getName().toUpperCase(Locale.ROOT);
+            this.upperDescription = item.getDescription().toUpperCase(Locale.ROOT);
+            this.grams = grams(upperName, upperDescription);
+        }
+
+        boolean matches(String query) {
+            return upperName.contains(query) || upperDescription.contains(query);
+        }
+
+        Item copy() {
+            return new Item(item.getId(), item.getName(), item.getDescription(),
+                    item.getAvailable(), item.getOwner(), item.getRequest());
+        }
+
+        long estimatedBytes() {
+            return 48 + stringBytes(item.getName()) + stringBytes(item.getDescription())
+                    + stringBytes(upperName) + stringBytes(upperDescription)
+                    + 16 + 8L * grams.length;
+        }
+    }
+
+    private static class PostingList {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        long estimatedBytes() {
+            return 24 + 16 + 8L * ids.length;
+        }
+    }
+}
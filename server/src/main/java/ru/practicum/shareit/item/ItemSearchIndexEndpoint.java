@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchIndexCheck;
+import ru.practicum.shareit.item.dto.ItemSearchIndexStats;
+
+@Component
+@Endpoint(id = "itemsearch")
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "MEMORY")
+@RequiredArgsConstructor
+public class ItemSearchIndexEndpoint {
+    private final ItemSearchIndex itemSearchIndex;
+
+    @ReadOperation
+    public ItemSearchIndexStats stats() {
+        return itemSearchIndex.stats();
+    }
+
+    @ReadOperation
+    public ItemSearchIndexCheck check(@Selector String text) {
+        return itemSearchIndex.check(text);
+    }
+
+    @WriteOperation
+    public ItemSearchIndexStats rebuild() {
+        return itemSearchIndex.rebuild();
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -13,7 +14,15 @@ public interface ItemService {
 
     List<ItemWithBookingsDto> getItemsByOwner(Long userId);
 
-    List<ItemDto> searchItems(String text);
+    String getItemVersion(Long userId, Long itemId);
+
+    String getItemsByOwnerVersion(Long userId);
+
+    List<ItemDto> searchItems(String text, Integer from, Integer size, LocalDateTime start, LocalDateTime end);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
\ No newline at end of file
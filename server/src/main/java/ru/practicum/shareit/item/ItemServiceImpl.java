@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.VersionToken;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
@@ -27,15 +31,24 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final EntityCache entityCache;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.search.mode:SUBSTRING}")
+    private SearchMode searchMode = SearchMode.SUBSTRING;
 
     @Override
     @Transactional
     public ItemDto createItem(Long userId, ItemCreateDto itemDto) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
 
         Item item = ItemMapper.toItem(itemDto, userId);
         Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem));
         return ItemMapper.toItemDto(savedItem);
     }
 
@@ -52,6 +65,7 @@ public class ItemServiceImpl implements ItemService {
         ItemMapper.updateItemFromDto(existingItem, itemDto);
 
         Item updatedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(updatedItem));
         return ItemMapper.toItemDto(updatedItem);
     }
 
@@ -66,10 +80,7 @@ public class ItemServiceImpl implements ItemService {
         ItemWithBookingsDto.BookingShortDto nextBooking = null;
 
         if (item.getOwner().equals(userId)) {
-            List<Booking> bookings = bookingRepository.findByItemId(itemId,
-                    Sort.by(Sort.Direction.DESC, "start"));
-
-            BookingInfo bookingInfo = getBookingInfo(bookings);
+            BookingInfo bookingInfo = getBookingInfo(List.of(itemId)).get(itemId);
             lastBooking = bookingInfo.lastBooking;
             nextBooking = bookingInfo.nextBooking;
         }
@@ -89,15 +100,7 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .collect(Collectors.toList());
 
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> allBookings = items.stream()
-                .flatMap(item -> bookingRepository.findByItemId(item.getId(),
-                        Sort.by(Sort.Direction.DESC, "start")).stream())
-                .collect(Collectors.toList());
-
-        Map<Long, List<Booking>> bookingsByItem = allBookings.stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Long, BookingInfo> bookingsByItem = getBookingInfo(itemIds);
 
         List<Comment> allComments = commentRepository.findByItem_IdIn(itemIds);
         Map<Long, List<Comment>> commentsByItem = allComments.stream()
@@ -105,11 +108,9 @@ public class ItemServiceImpl implements ItemService {
 
         return items.stream()
                 .map(item -> {
-                    List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), Collections.emptyList());
+                    BookingInfo bookingInfo = bookingsByItem.get(item.getId());
                     List<Comment> itemComments = commentsByItem.getOrDefault(item.getId(), Collections.emptyList());
 
-                    BookingInfo bookingInfo = getBookingInfo(itemBookings);
-
                     return ItemMapper.toItemWithBookingsDto(item,
                             bookingInfo.lastBooking,
                             bookingInfo.nextBooking,
@@ -119,16 +120,77 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> searchItems(String text) {
+    public String getItemVersion(Long userId, Long itemId) {
+        List<VersionToken> tokens = itemRepository.findItemVersion(itemId, LocalDateTime.now());
+        if (tokens.get(0).getTotal() == 0) {
+            throw new NotFoundException("Item with id " + itemId + " not found");
+        }
+        // владелец видит в карточке бронирования, остальные — нет
+        return VersionToken.etag(tokens) + "-" + Long.toString(userId, 36);
+    }
+
+    @Override
+    public String getItemsByOwnerVersion(Long userId) {
+        return VersionToken.etag(itemRepository.findOwnerItemsVersion(userId, LocalDateTime.now()));
+    }
+
+    @Override
+    public List<ItemDto> searchItems(String text, Integer from, Integer size,
+                                     LocalDateTime start, LocalDateTime end) {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
 
-        return itemRepository.search(text).stream()
+        // одно и то же смещение во всех режимах поиска, как и в списках бронирований
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        List<Item> items;
+        if (start == null && end == null) {
+            items = switch (searchMode) {
+                case SUBSTRING -> itemRepository.search(text, pageable);
+                case FULLTEXT -> itemRepository.searchRanked(text, pageable);
+                case MEMORY -> itemSearchIndex.search(text, from, size);
+            };
+        } else {
+            if (start == null || end == null) {
+                throw new IllegalArgumentException("Parameters start and end must be set together");
+            }
+            validatePeriod(start, end);
+            // индекс в памяти не знает о бронированиях, свободные вещи отбирает база
+            items = searchMode == SearchMode.FULLTEXT
+                    ? itemRepository.searchRankedAvailable(text, start, end, pageable)
+                    : itemRepository.searchAvailable(text, start, end, pageable);
+        }
+
+        return items.stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item with id " + itemId + " not found"));
+
+        boolean available = item.getAvailable() && availabilityIndex.isAvailable(itemId, from, to);
+        return new ItemAvailabilityDto(itemId, from, to, available);
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        Set<Long> free = availabilityIndex.findAvailable(items.keySet(), from, to);
+
+        return itemIds.stream()
+                .distinct()
+                .filter(items::containsKey)
+                .map(itemId -> new ItemAvailabilityDto(itemId, from, to,
+                        items.get(itemId).getAvailable() && free.contains(itemId)))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -153,34 +215,27 @@ public class ItemServiceImpl implements ItemService {
     }
 
     // Приватный метод для извлечения логики бронирований
-    private BookingInfo getBookingInfo(List<Booking> bookings) {
+    private Map<Long, BookingInfo> getBookingInfo(List<Long> itemIds) {
         LocalDateTime now = LocalDateTime.now();
 
-        ItemWithBookingsDto.BookingShortDto lastBooking = bookings.stream()
-                .filter(b -> !b.getStatus().equals(BookingStatus.REJECTED))
-                .filter(b -> b.getStart().isBefore(now) || b.getStart().isEqual(now))
-                .findFirst()
-                .map(b -> new ItemWithBookingsDto.BookingShortDto(
-                        b.getId(),
-                        b.getBooker().getId(),
-                        b.getStart(),
-                        b.getEnd()
-                ))
-                .orElse(null);
-
-        ItemWithBookingsDto.BookingShortDto nextBooking = bookings.stream()
-                .filter(b -> !b.getStatus().equals(BookingStatus.REJECTED))
-                .filter(b -> b.getStart().isAfter(now))
-                .reduce((first, second) -> second)
-                .map(b -> new ItemWithBookingsDto.BookingShortDto(
-                        b.getId(),
-                        b.getBooker().getId(),
-                        b.getStart(),
-                        b.getEnd()
-                ))
-                .orElse(null);
-
-        return new BookingInfo(lastBooking, nextBooking);
+        Map<Long, ItemWithBookingsDto.BookingShortDto> lastBookings = bookingRepository
+                .findLastBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingDto::getItemId, ItemMapper::toBookingShortDto));
+
+        Map<Long, ItemWithBookingsDto.BookingShortDto> nextBookings = bookingRepository
+                .findNextBookings(itemIds, now).stream()
+                .collect(Collectors.toMap(ItemBookingDto::getItemId, ItemMapper::toBookingShortDto));
+
+        return itemIds.stream()
+                .collect(Collectors.toMap(id -> id,
+                        id -> new BookingInfo(lastBookings.get(id), nextBookings.get(id)),
+                        (first, second) -> first));
+    }
+
+    private static void validatePeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Parameter from must be before to");
+        }
     }
 
     private static class BookingInfo {
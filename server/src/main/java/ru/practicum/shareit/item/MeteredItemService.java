@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.common.ServiceTimer;
+import ru.practicum.shareit.item.dto.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Время и ошибки методов ItemService, см. ServiceTimer
+@Service
+@Primary
+public class MeteredItemService implements ItemService {
+    private static final String SERVICE = "ItemService";
+
+    private final ItemService delegate;
+    private final ServiceTimer createItem;
+    private final ServiceTimer updateItem;
+    private final ServiceTimer getItem;
+    private final ServiceTimer getItemsByOwner;
+    private final ServiceTimer getItemVersion;
+    private final ServiceTimer getItemsByOwnerVersion;
+    private final ServiceTimer searchItems;
+    private final ServiceTimer getAvailability;
+    private final ServiceTimer getAvailabilities;
+    private final ServiceTimer addComment;
+
+    public MeteredItemService(ItemServiceImpl delegate, MeterRegistry registry, Tracer tracer) {
+        this.delegate = delegate;
+        this.createItem = new ServiceTimer(registry, tracer, SERVICE, "createItem");
+        this.updateItem = new ServiceTimer(registry, tracer, SERVICE, "updateItem");
+        this.getItem = new ServiceTimer(registry, tracer, SERVICE, "getItem");
+        this.getItemsByOwner = new ServiceTimer(registry, tracer, SERVICE, "getItemsByOwner");
+        this.getItemVersion = new ServiceTimer(registry, tracer, SERVICE, "getItemVersion");
+        this.getItemsByOwnerVersion = new ServiceTimer(registry, tracer, SERVICE, "getItemsByOwnerVersion");
+        this.searchItems = new ServiceTimer(registry, tracer, SERVICE, "searchItems");
+        this.getAvailability = new ServiceTimer(registry, tracer, SERVICE, "getAvailability");
+        // перегрузка для списка вещей получает своё имя, чтобы не смешивать время одной и многих вещей
+        this.getAvailabilities = new ServiceTimer(registry, tracer, SERVICE, "getAvailabilities");
+        this.addComment = new ServiceTimer(registry, tracer, SERVICE, "addComment");
+    }
+
+    @Override
+    public ItemDto createItem(Long userId, ItemCreateDto itemDto) {
+        return createItem.record(() -> delegate.createItem(userId, itemDto));
+    }
+
+    @Override
+    public ItemDto updateItem(Long userId, Long itemId, ItemUpdateDto itemDto) {
+        return updateItem.record(() -> delegate.updateItem(userId, itemId, itemDto));
+    }
+
+    @Override
+    public ItemWithBookingsDto getItem(Long userId, Long itemId) {
+        return getItem.record(() -> delegate.getItem(userId, itemId));
+    }
+
+    @Override
+    public List<ItemWithBookingsDto> getItemsByOwner(Long userId) {
+        return getItemsByOwner.record(() -> delegate.getItemsByOwner(userId));
+    }
+
+    @Override
+    public String getItemVersion(Long userId, Long itemId) {
+        return getItemVersion.record(() -> delegate.getItemVersion(userId, itemId));
+    }
+
+    @Override
+    public String getItemsByOwnerVersion(Long userId) {
+        return getItemsByOwnerVersion.record(() -> delegate.getItemsByOwnerVersion(userId));
+    }
+
+    @Override
+    public List<ItemDto> searchItems(String text, Integer from, Integer size, LocalDateTime start, LocalDateTime end) {
+        return searchItems.record(() -> delegate.searchItems(text, from, size, start, end));
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return getAvailability.record(() -> delegate.getAvailability(itemId, from, to));
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        return getAvailabilities.record(() -> delegate.getAvailability(itemIds, from, to));
+    }
+
+    @Override
+    public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
+        return addComment.record(() -> delegate.addComment(userId, itemId, commentDto));
+    }
+}
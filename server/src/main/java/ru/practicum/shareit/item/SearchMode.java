@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+public enum SearchMode {
+    // Поиск подстроки в названии или описании (совместимый режим)
+    SUBSTRING,
+    // Полнотекстовый поиск PostgreSQL с ранжированием по релевантности
+    FULLTEXT,
+    // Поиск подстроки по триграммному индексу в памяти сервера
+    MEMORY
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSearchIndexCheck {
+    private String text;
+    private boolean consistent;
+    private List<Long> missing = new ArrayList<>();
+    private List<Long> unexpected = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSearchIndexStats {
+    private boolean enabled;
+    private int items;
+    private int trigrams;
+    private long postings;
+    private long estimatedBytes;
+}
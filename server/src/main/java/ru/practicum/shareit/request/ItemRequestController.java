@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -22,7 +23,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemRequestDto> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getUserRequestsVersion(userId))) {
+            return null;
+        }
         return itemRequestService.getUserRequests(userId);
     }
 
@@ -35,7 +40,11 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long requestId) {
+                                     @PathVariable Long requestId,
+                                     WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getRequestVersion(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getRequest(userId, requestId);
     }
 }
\ No newline at end of file
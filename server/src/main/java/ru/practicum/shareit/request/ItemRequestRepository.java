@@ -3,7 +3,9 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.common.VersionToken;
 
 import java.util.List;
 
@@ -12,4 +14,29 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findByRequestorId(Long requestorId, Sort sort);
 
     List<ItemRequest> findByRequestorIdNot(Long requestorId, Pageable pageable);
+
+    // для ETag: пользователь, его запросы и вещи, добавленные в ответ на них
+    @Query(value = "select 0 as source, count(*) as total, coalesce(max(u.id), 0) as lastId, " +
+            "coalesce(sum(u.row_version), 0) as versions, 0 as started, 0 as ended " +
+            "from users u where u.id = ?1 " +
+            "union all " +
+            "select 1, count(*), coalesce(max(r.id), 0), coalesce(sum(r.row_version), 0), 0, 0 " +
+            "from requests r where r.requestor_id = ?1 " +
+            "union all " +
+            "select 2, count(*), coalesce(max(i.id), 0), coalesce(sum(i.row_version), 0), 0, 0 " +
+            "from items i join requests r on r.id = i.request_id where r.requestor_id = ?1 " +
+            "order by source", nativeQuery = true)
+    List<VersionToken> findRequestorVersion(Long userId);
+
+    @Query(value = "select 0 as source, count(*) as total, coalesce(max(u.id), 0) as lastId, " +
+            "coalesce(sum(u.row_version), 0) as versions, 0 as started, 0 as ended " +
+            "from users u where u.id = ?1 " +
+            "union all " +
+            "select 1, count(*), coalesce(max(r.id), 0), coalesce(sum(r.row_version), 0), 0, 0 " +
+            "from requests r where r.id = ?2 " +
+            "union all " +
+            "select 2, count(*), coalesce(max(i.id), 0), coalesce(sum(i.row_version), 0), 0, 0 " +
+            "from items i where i.request_id = ?2 " +
+            "order by source", nativeQuery = true)
+    List<VersionToken> findRequestVersion(Long userId, Long requestId);
 }
\ No newline at end of file
@@ -13,4 +13,8 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size);
 
     ItemRequestDto getRequest(Long userId, Long requestId);
+
+    String getUserRequestsVersion(Long userId);
+
+    String getRequestVersion(Long userId, Long requestId);
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.VersionToken;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -27,6 +29,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
 
     @Override
     @Transactional
@@ -45,8 +48,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getUserRequests(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
 
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         List<ItemRequest> requests = itemRequestRepository.findByRequestorId(userId, sort);
@@ -56,8 +60,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
 
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
         List<ItemRequest> requests = itemRequestRepository.findByRequestorIdNot(userId, pageable);
@@ -67,8 +72,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getRequest(Long userId, Long requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+        if (!entityCache.userExists(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
 
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request with id " + requestId + " not found"));
@@ -78,6 +84,27 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestDto(request, items);
     }
 
+    @Override
+    public String getUserRequestsVersion(Long userId) {
+        List<VersionToken> tokens = itemRequestRepository.findRequestorVersion(userId);
+        if (tokens.get(0).getTotal() == 0) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
+        return VersionToken.etag(tokens);
+    }
+
+    @Override
+    public String getRequestVersion(Long userId, Long requestId) {
+        List<VersionToken> tokens = itemRequestRepository.findRequestVersion(userId, requestId);
+        if (tokens.get(0).getTotal() == 0) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
+        if (tokens.get(1).getTotal() == 0) {
+            throw new NotFoundException("Request with id " + requestId + " not found");
+        }
+        return VersionToken.etag(tokens);
+    }
+
     private List<ItemRequestDto> enrichRequestsWithItems(List<ItemRequest> requests) {
         if (requests.isEmpty()) {
             return Collections.emptyList();
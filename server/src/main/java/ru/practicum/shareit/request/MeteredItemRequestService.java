@@ -0,0 +1,66 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.common.ServiceTimer;
+import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+// Время и ошибки методов ItemRequestService, см. ServiceTimer
+@Service
+@Primary
+public class MeteredItemRequestService implements ItemRequestService {
+    private static final String SERVICE = "ItemRequestService";
+
+    private final ItemRequestService delegate;
+    private final ServiceTimer createRequest;
+    private final ServiceTimer getUserRequests;
+    private final ServiceTimer getAllRequests;
+    private final ServiceTimer getRequest;
+    private final ServiceTimer getUserRequestsVersion;
+    private final ServiceTimer getRequestVersion;
+
+    public MeteredItemRequestService(ItemRequestServiceImpl delegate, MeterRegistry registry, Tracer tracer) {
+        this.delegate = delegate;
+        this.createRequest = new ServiceTimer(registry, tracer, SERVICE, "createRequest");
+        this.getUserRequests = new ServiceTimer(registry, tracer, SERVICE, "getUserRequests");
+        this.getAllRequests = new ServiceTimer(registry, tracer, SERVICE, "getAllRequests");
+        this.getRequest = new ServiceTimer(registry, tracer, SERVICE, "getRequest");
+        this.getUserRequestsVersion = new ServiceTimer(registry, tracer, SERVICE, "getUserRequestsVersion");
+        this.getRequestVersion = new ServiceTimer(registry, tracer, SERVICE, "getRequestVersion");
+    }
+
+    @Override
+    public ItemRequestDto createRequest(Long userId, ItemRequestCreateDto requestDto) {
+        return createRequest.record(() -> delegate.createRequest(userId, requestDto));
+    }
+
+    @Override
+    public List<ItemRequestDto> getUserRequests(Long userId) {
+        return getUserRequests.record(() -> delegate.getUserRequests(userId));
+    }
+
+    @Override
+    public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
+        return getAllRequests.record(() -> delegate.getAllRequests(userId, from, size));
+    }
+
+    @Override
+    public ItemRequestDto getRequest(Long userId, Long requestId) {
+        return getRequest.record(() -> delegate.getRequest(userId, requestId));
+    }
+
+    @Override
+    public String getUserRequestsVersion(Long userId) {
+        return getUserRequestsVersion.record(() -> delegate.getUserRequestsVersion(userId));
+    }
+
+    @Override
+    public String getRequestVersion(Long userId, Long requestId) {
+        return getRequestVersion.record(() -> delegate.getRequestVersion(userId, requestId));
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.common.ServiceTimer;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+// Время и ошибки методов UserService, см. ServiceTimer
+@Service
+@Primary
+public class MeteredUserService implements UserService {
+    private static final String SERVICE = "UserService";
+
+    private final UserService delegate;
+    private final ServiceTimer createUser;
+    private final ServiceTimer updateUser;
+    private final ServiceTimer getUser;
+    private final ServiceTimer deleteUser;
+    private final ServiceTimer getAllUsers;
+
+    public MeteredUserService(UserServiceImpl delegate, MeterRegistry registry, Tracer tracer) {
+        this.delegate = delegate;
+        this.createUser = new ServiceTimer(registry, tracer, SERVICE, "createUser");
+        this.updateUser = new ServiceTimer(registry, tracer, SERVICE, "updateUser");
+        this.getUser = new ServiceTimer(registry, tracer, SERVICE, "getUser");
+        this.deleteUser = new ServiceTimer(registry, tracer, SERVICE, "deleteUser");
+        this.getAllUsers = new ServiceTimer(registry, tracer, SERVICE, "getAllUsers");
+    }
+
+    @Override
+    public UserDto createUser(UserDto userDto) {
+        return createUser.record(() -> delegate.createUser(userDto));
+    }
+
+    @Override
+    public UserDto updateUser(Long userId, UserDto userDto) {
+        return updateUser.record(() -> delegate.updateUser(userId, userDto));
+    }
+
+    @Override
+    public UserDto getUser(Long userId) {
+        return getUser.record(() -> delegate.getUser(userId));
+    }
+
+    @Override
+    public void deleteUser(Long userId) {
+        deleteUser.run(() -> delegate.deleteUser(userId));
+    }
+
+    @Override
+    public List<UserDto> getAllUsers() {
+        return getAllUsers.record(delegate::getAllUsers);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserDeletedEvent {
+    private Long userId;
+}
@@ -0,0 +1,18 @@
+-- row_version: значение row_version_seq при вставке и, через ON UPDATE, при изменении строки
+ALTER TABLE users ALTER COLUMN row_version SET DEFAULT NEXT VALUE FOR row_version_seq;
+ALTER TABLE users ALTER COLUMN row_version SET ON UPDATE NEXT VALUE FOR row_version_seq;
+ALTER TABLE requests ALTER COLUMN row_version SET DEFAULT NEXT VALUE FOR row_version_seq;
+ALTER TABLE requests ALTER COLUMN row_version SET ON UPDATE NEXT VALUE FOR row_version_seq;
+ALTER TABLE items ALTER COLUMN row_version SET DEFAULT NEXT VALUE FOR row_version_seq;
+ALTER TABLE items ALTER COLUMN row_version SET ON UPDATE NEXT VALUE FOR row_version_seq;
+ALTER TABLE bookings ALTER COLUMN row_version SET DEFAULT NEXT VALUE FOR row_version_seq;
+ALTER TABLE bookings ALTER COLUMN row_version SET ON UPDATE NEXT VALUE FOR row_version_seq;
+ALTER TABLE comments ALTER COLUMN row_version SET DEFAULT NEXT VALUE FOR row_version_seq;
+ALTER TABLE comments ALTER COLUMN row_version SET ON UPDATE NEXT VALUE FOR row_version_seq;
+
+-- id: следующее значение последовательности таблицы
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR requests_seq;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
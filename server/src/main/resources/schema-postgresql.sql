@@ -0,0 +1,46 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED;
+
+CREATE INDEX IF NOT EXISTS items_search_vector_idx ON items USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING GIN (upper(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN (upper(description) gin_trgm_ops);
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_date, end_date)) STORED;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING GIST (item_id WITH =, period WITH &&) WHERE (status = 'APPROVED');
+
+-- row_version: триггер берёт следующее значение row_version_seq
+CREATE OR REPLACE FUNCTION next_row_version() RETURNS trigger AS
+    'BEGIN NEW.row_version := nextval(''row_version_seq''); RETURN NEW; END' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_row_version ON users;
+CREATE TRIGGER users_row_version BEFORE INSERT OR UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION next_row_version();
+
+DROP TRIGGER IF EXISTS requests_row_version ON requests;
+CREATE TRIGGER requests_row_version BEFORE INSERT OR UPDATE ON requests
+    FOR EACH ROW EXECUTE FUNCTION next_row_version();
+
+DROP TRIGGER IF EXISTS items_row_version ON items;
+CREATE TRIGGER items_row_version BEFORE INSERT OR UPDATE ON items
+    FOR EACH ROW EXECUTE FUNCTION next_row_version();
+
+DROP TRIGGER IF EXISTS bookings_row_version ON bookings;
+CREATE TRIGGER bookings_row_version BEFORE INSERT OR UPDATE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION next_row_version();
+
+DROP TRIGGER IF EXISTS comments_row_version ON comments;
+CREATE TRIGGER comments_row_version BEFORE INSERT OR UPDATE ON comments
+    FOR EACH ROW EXECUTE FUNCTION next_row_version();
+
+-- id: следующее значение последовательности таблицы
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
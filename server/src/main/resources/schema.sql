@@ -5,40 +5,70 @@ DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    email VARCHAR(512) NOT NULL UNIQUE
+    email VARCHAR(512) NOT NULL UNIQUE,
+    row_version BIGINT
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     description VARCHAR(512) NOT NULL,
     requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    row_version BIGINT
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE
+    request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE,
+    row_version BIGINT
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    status VARCHAR(32) NOT NULL
+    status VARCHAR(32) NOT NULL,
+    row_version BIGINT
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     text VARCHAR(512) NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    row_version BIGINT
+);
+
+-- row_version заполняется из общей последовательности при каждой вставке и изменении строки
+-- (schema-postgresql.sql, schema-h2.sql) и служит для ETag списков
+CREATE SEQUENCE IF NOT EXISTS row_version_seq;
+
+-- id выдаёт Hibernate блоками по 50 (allocationSize в сущностях): он известен до вставки, и INSERT уходят пачками JDBC.
+-- Значение по умолчанию для вставок в обход Hibernate — следующее значение той же последовательности
+-- (schema-postgresql.sql, schema-h2.sql); оно закрывает свой блок, поэтому с id Hibernate не пересекается
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_status_period_idx ON bookings (item_id, status, start_date, end_date);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
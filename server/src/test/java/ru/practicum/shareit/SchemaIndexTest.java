@@ -0,0 +1,104 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+class SchemaIndexTest {
+    private static EmbeddedPostgres postgres;
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        connection = postgres.getPostgresDatabase().getConnection();
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into users (id, name, email) " +
+                    "select g, 'user ' || g, 'user' || g || '@email.com' from generate_series(1, 5000) g");
+            statement.execute("insert into requests (id, description, requestor_id, created) " +
+                    "select g, 'request ' || g, g % 5000 + 1, timestamp '2020-01-01' + g * interval '1 hour' " +
+                    "from generate_series(1, 20000) g");
+            statement.execute("insert into items (id, name, description, is_available, owner_id, request_id) " +
+                    "select g, 'item ' || g, 'description ' || g, g % 7 <> 0, g % 5000 + 1, " +
+                    "case when g % 25 = 0 then g / 25 end from generate_series(1, 500000) g");
+            statement.execute("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                    "select g, timestamp '2020-01-01' + g * interval '10 minutes', " +
+                    "timestamp '2020-01-01' + g * interval '10 minutes' + interval '2 days', " +
+                    "g % 500000 + 1, (g * 7) % 5000 + 1, " +
+                    "(array['WAITING', 'APPROVED', 'APPROVED', 'REJECTED'])[g % 4 + 1] " +
+                    "from generate_series(1, 500000) g");
+            statement.execute("insert into comments (id, text, item_id, author_id, created) " +
+                    "select g, 'comment ' || g, g % 50000 + 1, g % 5000 + 1, now() from generate_series(1, 100000) g");
+            statement.execute("analyze");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException, SQLException {
+        connection.close();
+        postgres.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "select * from bookings b where b.booker_id = 42 " +
+                    "order by b.start_date desc, b.id desc limit 11",
+            "select * from bookings b where b.booker_id = 42 and b.start_date > now() " +
+                    "order by b.start_date desc, b.id desc limit 11",
+            "select * from bookings b where b.booker_id = 42 and b.status = 'WAITING' " +
+                    "order by b.start_date desc, b.id desc limit 11",
+            "select b.* from bookings b join items i on i.id = b.item_id where i.owner_id = 42 " +
+                    "order by b.start_date desc, b.id desc limit 11",
+            "select b.* from bookings b join items i on i.id = b.item_id " +
+                    "where i.owner_id = 42 and b.status = 'WAITING' " +
+                    "order by b.start_date desc, b.id desc limit 11",
+            "select * from bookings b where b.item_id in (1, 2, 3) and b.status <> 'REJECTED' " +
+                    "and b.start_date <= now() order by b.start_date desc",
+            "select * from bookings b where b.item_id = 42 and b.status = 'APPROVED' " +
+                    "and b.start_date < timestamp '2021-01-02' and b.end_date > timestamp '2021-01-01'",
+            "select count(*) from bookings b where b.booker_id = 42 and b.item_id = 42 " +
+                    "and b.end_date < now() and b.status = 'APPROVED'",
+            "select * from items i where i.owner_id = 42",
+            "select * from items i where i.request_id in (1, 2, 3)",
+            "select * from comments c where c.item_id in (1, 2, 3)",
+            "select * from requests r where r.requestor_id = 42 order by r.created desc",
+            "select * from items i where i.is_available = true " +
+                    "and (upper(i.name) like upper('%item 4242%') or upper(i.description) like upper('%item 4242%'))",
+            "select i.* from items i where i.is_available = true " +
+                    "and i.search_vector @@ websearch_to_tsquery('simple', 'item 4242') " +
+                    "order by ts_rank(i.search_vector, websearch_to_tsquery('simple', 'item 4242')) desc, i.id",
+            "select * from items i where i.is_available = true " +
+                    "and (upper(i.name) like upper('%item 4242%') or upper(i.description) like upper('%item 4242%')) " +
+                    "and not exists (select 1 from bookings b where b.item_id = i.id and b.status = 'APPROVED' " +
+                    "and b.start_date < timestamp '2021-01-03' and b.end_date > timestamp '2021-01-01') " +
+                    "order by i.id limit 10"
+    })
+    void hotQueries_shouldNotUseSequentialScans(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("explain " + query)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+
+        assertThat(plan.toString(), not(containsString("Seq Scan")));
+    }
+}
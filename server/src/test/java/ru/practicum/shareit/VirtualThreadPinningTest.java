@@ -0,0 +1,106 @@
+package ru.practicum.shareit;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+// Аудит закрепления виртуальных потоков (pinning) на пути запроса к PostgreSQL:
+// Hikari, драйвер pgjdbc и Hibernate не должны блокироваться внутри synchronized.
+// Встроенная H2 из тестового профиля синхронизирована целиком и здесь не проверяется
+@DataJpaTest(properties = {
+        "spring.sql.init.platform=postgresql",
+        "shareit.booking.overlap-constraint=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({BookingServiceImpl.class, EmbeddedPostgresConfig.class, EntityCache.class, EntityCacheConfig.class})
+class VirtualThreadPinningTest {
+    private static final int TASKS = 200;
+
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    @Test
+    void bookingPath_shouldNotPinVirtualThreads() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            items.add(itemRepository.save(new Item(null, "Drill " + i, "Powerful drill", true, owner.getId(), null)));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        List<String> pinned = new ArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                synchronized (pinned) {
+                    pinned.add(event.getStackTrace().getFrames().stream()
+                            .map(RecordedFrame::getMethod)
+                            .map(method -> method.getType().getName() + "." + method.getName())
+                            .collect(Collectors.joining(" <- ")));
+                }
+            });
+            recording.startAsync();
+
+            // пул соединений меньше числа задач, а бронирования одной вещи ждут блокировку строки
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    Item item = items.get(i % items.size());
+                    LocalDateTime slot = start.plusHours(i);
+                    futures.add(executor.submit(() -> {
+                        BookingDto booking = bookingService.createBooking(booker.getId(),
+                                new BookingCreateDto(item.getId(), slot, slot.plusHours(2)));
+                        try {
+                            bookingService.updateBookingStatus(owner.getId(), booking.getId(), true);
+                        } catch (ConflictException ignored) {
+                            // пересечение с соседним слотом — ожидаемый исход
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(2, TimeUnit.MINUTES);
+                }
+            }
+            recording.stop();
+        }
+
+        assertThat(pinned, empty());
+    }
+}
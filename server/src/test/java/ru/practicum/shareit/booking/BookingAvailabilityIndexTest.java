@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingAvailabilityIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingAvailabilityIndex index = new BookingAvailabilityIndex(bookingRepository);
+
+    private final Item item = new Item(1L, "Drill", "Powerful drill", true, 2L, null);
+    private final User booker = new User(3L, "Booker", "booker@email.com");
+
+    @Test
+    void isAvailable_shouldTreatPeriodsAsHalfOpen() {
+        index.put(booking(1L, START, START.plusDays(2), BookingStatus.APPROVED));
+
+        assertThat(index.isAvailable(1L, START.minusDays(1), START), is(true));
+        assertThat(index.isAvailable(1L, START.plusDays(2), START.plusDays(3)), is(true));
+        assertThat(index.isAvailable(1L, START.minusDays(1), START.plusMinutes(1)), is(false));
+        assertThat(index.isAvailable(1L, START.plusHours(1), START.plusHours(2)), is(false));
+        assertThat(index.isAvailable(2L, START, START.plusDays(2)), is(true));
+    }
+
+    @Test
+    void isAvailable_shouldFindLongBookingStartedEarlier() {
+        index.put(booking(1L, START, START.plusDays(30), BookingStatus.WAITING));
+        index.put(booking(2L, START.plusDays(1), START.plusDays(2), BookingStatus.APPROVED));
+        index.put(booking(3L, START.plusDays(3), START.plusDays(4), BookingStatus.APPROVED));
+
+        assertThat(index.isAvailable(1L, START.plusDays(10), START.plusDays(11)), is(false));
+        assertThat(index.isAvailable(1L, START.plusDays(30), START.plusDays(31)), is(true));
+    }
+
+    @Test
+    void put_shouldRemoveRejectedBooking() {
+        index.put(booking(1L, START, START.plusDays(2), BookingStatus.WAITING));
+        index.put(booking(1L, START, START.plusDays(2), BookingStatus.REJECTED));
+
+        assertThat(index.isAvailable(1L, START, START.plusDays(2)), is(true));
+    }
+
+    @Test
+    void rebuild_shouldLoadBusyBookings() {
+        when(bookingRepository.findIntervalsByStatusInEndingAfter(anyList(), any())).thenReturn(List.of(
+                new ItemBookingDto(1L, 2L, 3L, START.plusDays(5), START.plusDays(6)),
+                new ItemBookingDto(1L, 1L, 3L, START, START.plusDays(1)),
+                new ItemBookingDto(2L, 3L, 3L, START, START.plusDays(1))));
+        index.put(booking(4L, START.plusDays(10), START.plusDays(11), BookingStatus.APPROVED));
+
+        index.rebuild();
+
+        assertThat(index.isAvailable(1L, START.plusDays(10), START.plusDays(11)), is(true));
+        assertThat(index.findAvailable(List.of(1L, 2L, 3L), START.plusHours(1), START.plusHours(2)),
+                containsInAnyOrder(3L));
+        assertThat(index.findAvailable(List.of(1L, 2L, 3L), START.plusDays(2), START.plusDays(3)),
+                containsInAnyOrder(1L, 2L, 3L));
+    }
+
+    @Test
+    void put_shouldPruneEndedIntervals() {
+        LocalDateTime now = LocalDateTime.now();
+        index.put(booking(1L, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED));
+        index.put(booking(2L, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED));
+        index.put(booking(3L, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING));
+
+        assertThat(index.size(1L), is(2));
+        assertThat(index.isAvailable(1L, now.plusHours(1), now.plusHours(2)), is(false));
+        assertThat(index.isAvailable(1L, now.plusDays(2), now.plusDays(3)), is(false));
+    }
+
+    @Test
+    void rebuild_shouldSkipEndedIntervals() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findIntervalsByStatusInEndingAfter(anyList(), any())).thenReturn(List.of(
+                new ItemBookingDto(1L, 1L, 3L, now.minusDays(3), now.minusDays(2)),
+                new ItemBookingDto(2L, 2L, 3L, now.minusDays(3), now.minusDays(2)),
+                new ItemBookingDto(2L, 3L, 3L, now.plusDays(1), now.plusDays(2))));
+
+        index.rebuild();
+
+        assertThat(index.size(1L), is(0));
+        assertThat(index.size(2L), is(1));
+        assertThat(index.findAvailable(List.of(1L, 2L), now.plusDays(1), now.plusDays(2)),
+                containsInAnyOrder(1L));
+    }
+
+    @Test
+    void isAvailable_shouldAskDatabaseForPeriodStartedInPast() {
+        LocalDateTime now = LocalDateTime.now();
+        index.put(booking(1L, now.minusHours(3), now.minusHours(1), BookingStatus.APPROVED));
+        when(bookingRepository.findBusyItemIds(eq(List.of(1L)), anyList(), any(), any())).thenReturn(List.of(1L));
+        when(bookingRepository.findBusyItemIds(eq(List.of(1L, 2L)), anyList(), any(), any())).thenReturn(List.of(1L));
+
+        assertThat(index.isAvailable(1L, now.minusDays(1), now.plusDays(1)), is(false));
+        assertThat(index.findAvailable(List.of(1L, 2L), now.minusDays(1), now.plusDays(1)), containsInAnyOrder(2L));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return new Booking(id, start, end, item, booker, status);
+    }
+}
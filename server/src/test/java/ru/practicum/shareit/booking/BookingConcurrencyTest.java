@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-concurrency;LOCK_TIMEOUT=30000")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({BookingServiceImpl.class, EntityCache.class, EntityCacheConfig.class})
+class BookingConcurrencyTest {
+    private static final int THREADS = 200;
+    private static final int REQUESTS = 400;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createAndApprove_shouldNeverApproveOverlappingBookings() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookers.add(userRepository.save(new User(null, "Booker " + i, "booker" + i + "@email.com")));
+        }
+        Item item = itemRepository.save(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            User booker = bookers.get(i % bookers.size());
+            LocalDateTime slotStart = start.plusHours(i % 24);
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    BookingDto booking = bookingService.createBooking(booker.getId(),
+                            new BookingCreateDto(item.getId(), slotStart, slotStart.plusHours(3)));
+                    bookingService.updateBookingStatus(owner.getId(), booking.getId(), true);
+                } catch (ConflictException | IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Booking> approved = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .toList();
+
+        assertThat(approved, not(empty()));
+        for (Booking first : approved) {
+            for (Booking second : approved) {
+                if (!first.getId().equals(second.getId())) {
+                    assertThat(first.getStart().isBefore(second.getEnd())
+                            && second.getStart().isBefore(first.getEnd()), is(false));
+                }
+            }
+        }
+        assertThat(rejected.get(), greaterThan(0));
+    }
+
+    @Test
+    void createBooking_shouldNotWaitForLockOnAnotherItem() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        Item locked = itemRepository.save(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+        Item free = itemRepository.save(new Item(null, "Saw", "Sharp saw", true, owner.getId(), null));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch lockAcquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> transaction.executeWithoutResult(status -> {
+            itemRepository.findByIdForUpdate(locked.getId());
+            lockAcquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(lockAcquired.await(10, TimeUnit.SECONDS), is(true));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        CompletableFuture<BookingDto> booking = CompletableFuture.supplyAsync(() -> bookingService.createBooking(
+                booker.getId(), new BookingCreateDto(free.getId(), start, start.plusDays(1))));
+
+        try {
+            assertThat(booking.get(10, TimeUnit.SECONDS).getItem().getId(), equalTo(free.getId()));
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+    }
+}
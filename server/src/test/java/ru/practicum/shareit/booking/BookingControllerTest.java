@@ -7,6 +7,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
@@ -14,6 +16,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,6 +55,32 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    void createBookings_shouldReturnResultPerEntry() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingBatchCreateDto batchDto = new BookingBatchCreateDto(List.of(
+                new BookingCreateDto(1L, start, start.plusDays(1)),
+                new BookingCreateDto(2L, start, start.plusDays(1))));
+
+        BookingDto responseDto = new BookingDto();
+        responseDto.setId(1L);
+        responseDto.setStatus(BookingStatus.WAITING);
+
+        when(bookingService.createBookings(anyLong(), any())).thenReturn(List.of(
+                new BookingBatchResultDto(0, 201, responseDto, null),
+                new BookingBatchResultDto(1, 404, null, "Item with id 2 not found")));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").value(1))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error").value("Item with id 2 not found"));
+    }
+
     @Test
     void getBooking_shouldReturn200() throws Exception {
         BookingDto responseDto = new BookingDto();
@@ -70,7 +100,7 @@ class BookingControllerTest {
         BookingDto responseDto = new BookingDto();
         responseDto.setId(1L);
 
-        when(bookingService.getUserBookings(anyLong(), any())).thenReturn(List.of(responseDto));
+        when(bookingService.getUserBookings(anyLong(), any(), anyInt(), anyInt(), any(), any())).thenReturn(List.of(responseDto));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -84,7 +114,7 @@ class BookingControllerTest {
         BookingDto responseDto = new BookingDto();
         responseDto.setId(1L);
 
-        when(bookingService.getOwnerBookings(anyLong(), any())).thenReturn(List.of(responseDto));
+        when(bookingService.getOwnerBookings(anyLong(), any(), anyInt(), anyInt(), any(), any())).thenReturn(List.of(responseDto));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -109,4 +139,29 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserBookings_shouldReturn304WhenEtagMatches() throws Exception {
+        when(bookingService.getUserBookingsVersion(1L)).thenReturn("1.1.5.0.0-1.3.9.0.0");
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1.1.5.0.0-1.3.9.0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1.1.5.0.0-1.3.9.0.0\""));
+
+        verify(bookingService, never()).getUserBookings(anyLong(), any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void getOwnerBookings_shouldReturnEtag() throws Exception {
+        when(bookingService.getOwnerBookingsVersion(1L)).thenReturn("1.1.5.0.0-0.0.0.0.0");
+        when(bookingService.getOwnerBookings(anyLong(), any(), anyInt(), anyInt(), any(), any())).thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.1.5.0.0-0.0.0.0.0\""));
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.EmbeddedPostgresConfig;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Вставка бронирований через Hibernate в PostgreSQL: IDENTITY (как до перехода на последовательности —
+// INSERT по одному с возвратом id) против id из пула последовательности с пачками hibernate.jdbc.batch_size.
+// Запуск: mvn -pl server test -Pbenchmark -Dbenchmark.bookings=100000
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.sql.init.platform=postgresql")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({EmbeddedPostgresConfig.class, EntityCache.class, EntityCacheConfig.class})
+class BookingInsertBenchmarkTest {
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 100_000);
+    // бронирований в одной транзакции, как при импорте частями
+    private static final int CHUNK = Integer.getInteger("benchmark.chunk", 1_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"IDENTITY", "SEQUENCE"})
+    void measure(String generation) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Item item = transaction.execute(status -> {
+            User owner = new User(null, "Owner", "owner-" + generation + "@email.com");
+            User booker = new User(null, "Booker", "booker-" + generation + "@email.com");
+            entityManager.persist(owner);
+            entityManager.persist(booker);
+            Item drill = new Item(null, "Drill", "Powerful drill", true, owner.getId(), null);
+            entityManager.persist(drill);
+            return drill;
+        });
+        User booker = entityManager.createQuery("select u from User u where u.email = ?1", User.class)
+                .setParameter(1, "booker-" + generation + "@email.com")
+                .getSingleResult();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int from = 0; from < BOOKINGS; from += CHUNK) {
+                int offset = from;
+                transaction.executeWithoutResult(status -> {
+                    User bookerReference = entityManager.getReference(User.class, booker.getId());
+                    Item itemReference = entityManager.getReference(Item.class, item.getId());
+                    for (int i = offset; i < Math.min(offset + CHUNK, BOOKINGS); i++) {
+                        LocalDateTime bookingStart = start.plusHours(i);
+                        entityManager.persist(generation.equals("IDENTITY")
+                                ? new IdentityBooking(null, bookingStart, bookingStart.plusMinutes(30),
+                                item.getId(), booker.getId(), BookingStatus.WAITING.name())
+                                : new Booking(null, bookingStart, bookingStart.plusMinutes(30),
+                                itemReference, bookerReference, BookingStatus.WAITING));
+                    }
+                });
+            }
+            long elapsed = System.nanoTime() - started;
+
+            long inserted = transaction.execute(status -> ((Number) entityManager
+                    .createNativeQuery("select count(*) from bookings where item_id = ?1")
+                    .setParameter(1, item.getId())
+                    .getSingleResult()).longValue());
+            assertThat(inserted, equalTo((long) BOOKINGS));
+            System.out.printf("%s, %d bookings, round %d: %.0f bookings/s, %d ms%n",
+                    generation, BOOKINGS, round, BOOKINGS * 1e9 / elapsed, TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+            transaction.executeWithoutResult(status -> entityManager
+                    .createNativeQuery("delete from bookings where item_id = ?1")
+                    .setParameter(1, item.getId())
+                    .executeUpdate());
+        }
+    }
+
+    // та же таблица с прежней стратегией id: значение по умолчанию столбца возвращается после каждого INSERT
+    @Entity(name = "IdentityBooking")
+    @Table(name = "bookings")
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class IdentityBooking {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "start_date", nullable = false)
+        private LocalDateTime start;
+
+        @Column(name = "end_date", nullable = false)
+        private LocalDateTime end;
+
+        @Column(name = "item_id", nullable = false)
+        private Long itemId;
+
+        @Column(name = "booker_id", nullable = false)
+        private Long bookerId;
+
+        @Column(name = "status", nullable = false)
+        private String status;
+    }
+}
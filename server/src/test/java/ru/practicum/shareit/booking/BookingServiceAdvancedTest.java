@@ -5,9 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.common.EntityCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -33,6 +38,12 @@ class BookingServiceAdvancedTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -75,109 +86,119 @@ class BookingServiceAdvancedTest {
     void getUserBookings_shouldReturnCurrentBookings() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findCurrentBookingsByBooker(anyLong(), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getUserBookings(1L, BookingState.CURRENT);
+        bookingService.getUserBookings(1L, BookingState.CURRENT, 0, 10, null, null);
     }
 
     @Test
     void getUserBookings_shouldReturnPastBookings() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndEndBefore(anyLong(), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndEndBefore(anyLong(), any(LocalDateTime.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getUserBookings(1L, BookingState.PAST);
+        bookingService.getUserBookings(1L, BookingState.PAST, 0, 10, null, null);
     }
 
     @Test
     void getUserBookings_shouldReturnFutureBookings() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStartAfter(anyLong(), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndStartAfter(anyLong(), any(LocalDateTime.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getUserBookings(1L, BookingState.FUTURE);
+        bookingService.getUserBookings(1L, BookingState.FUTURE, 0, 10, null, null);
     }
 
     @Test
     void getUserBookings_shouldReturnWaitingBookings() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(BookingStatus.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getUserBookings(1L, BookingState.WAITING);
+        bookingService.getUserBookings(1L, BookingState.WAITING, 0, 10, null, null);
     }
 
     @Test
     void getUserBookings_shouldReturnRejectedBookings() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(BookingStatus.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getUserBookings(1L, BookingState.REJECTED);
+        bookingService.getUserBookings(1L, BookingState.REJECTED, 0, 10, null, null);
     }
 
     @Test
     void getOwnerBookings_shouldReturnCurrentBookings() {
         User user = new User(1L, "Owner", "owner@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findCurrentBookingsByOwner(anyLong(), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getOwnerBookings(1L, BookingState.CURRENT);
+        bookingService.getOwnerBookings(1L, BookingState.CURRENT, 0, 10, null, null);
     }
 
     @Test
     void getOwnerBookings_shouldReturnPastBookings() {
         User user = new User(1L, "Owner", "owner@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemOwnerAndEndBefore(anyLong(), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerAndEndBefore(anyLong(), any(LocalDateTime.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getOwnerBookings(1L, BookingState.PAST);
+        bookingService.getOwnerBookings(1L, BookingState.PAST, 0, 10, null, null);
     }
 
     @Test
     void getOwnerBookings_shouldReturnFutureBookings() {
         User user = new User(1L, "Owner", "owner@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemOwnerAndStartAfter(anyLong(), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerAndStartAfter(anyLong(), any(LocalDateTime.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getOwnerBookings(1L, BookingState.FUTURE);
+        bookingService.getOwnerBookings(1L, BookingState.FUTURE, 0, 10, null, null);
     }
 
     @Test
     void getOwnerBookings_shouldReturnWaitingBookings() {
         User user = new User(1L, "Owner", "owner@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(BookingStatus.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getOwnerBookings(1L, BookingState.WAITING);
+        bookingService.getOwnerBookings(1L, BookingState.WAITING, 0, 10, null, null);
     }
 
     @Test
     void getOwnerBookings_shouldReturnRejectedBookings() {
         User user = new User(1L, "Owner", "owner@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerAndStatus(anyLong(), any(BookingStatus.class),
+                any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        bookingService.getOwnerBookings(1L, BookingState.REJECTED);
+        bookingService.getOwnerBookings(1L, BookingState.REJECTED, 0, 10, null, null);
     }
 }
\ No newline at end of file
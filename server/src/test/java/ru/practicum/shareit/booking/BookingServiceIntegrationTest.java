@@ -1,31 +1,47 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.common.VersionToken;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Import(BookingServiceImpl.class)
+@Import({BookingServiceImpl.class, EntityCache.class, EntityCacheConfig.class})
 class BookingServiceIntegrationTest {
     private final BookingService bookingService;
     private final TestEntityManager entityManager;
+    private final BookingRepository bookingRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Test
     void createBooking_shouldCreateBooking() {
@@ -61,6 +77,76 @@ class BookingServiceIntegrationTest {
         assertThat(result.getBooker().getId(), equalTo(booker.getId()));
     }
 
+    @Test
+    void createBooking_shouldValidateAndInsertInTwoStatements() {
+        User owner = entityManager.persist(new User(null, "Owner", "owner@email.com"));
+        User booker = entityManager.persist(new User(null, "Booker", "booker@email.com"));
+        Item item = entityManager.persist(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        entityManager.persist(new Booking(null, start, start.plusDays(1), item, owner, BookingStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BookingDto result = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3)));
+        entityManager.flush();
+
+        assertThat(result.getItem().getName(), equalTo("Drill"));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusHours(1), start.plusHours(2))));
+        assertThrows(NotFoundException.class, () -> bookingService.createBooking(-1L,
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(3))));
+        assertThrows(NotFoundException.class, () -> bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(-1L, start.plusDays(2), start.plusDays(3))));
+    }
+
+    @Test
+    void createBookings_shouldInsertValidEntriesInOneBatch() {
+        User owner = entityManager.persist(new User(null, "Owner", "owner@email.com"));
+        User booker = entityManager.persist(new User(null, "Booker", "booker@email.com"));
+        Item item = entityManager.persist(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+        Item unavailable = entityManager.persist(new Item(null, "Saw", "Old saw", false, owner.getId(), null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        entityManager.persist(new Booking(null, start, start.plusHours(2), item, owner, BookingStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookingCreateDto> entries = new ArrayList<>();
+        for (int week = 1; week <= 10; week++) {
+            entries.add(new BookingCreateDto(item.getId(), start.plusWeeks(week), start.plusWeeks(week).plusDays(1)));
+        }
+        entries.add(new BookingCreateDto(item.getId(), start.plusHours(1), start.plusHours(3)));
+        entries.add(new BookingCreateDto(unavailable.getId(), start, start.plusDays(1)));
+        entries.add(new BookingCreateDto(-1L, start, start.plusDays(1)));
+        entries.add(new BookingCreateDto(item.getId(), start, start));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(),
+                new BookingBatchCreateDto(entries));
+        entityManager.flush();
+
+        assertThat(results, hasSize(14));
+        assertThat(results.stream().map(BookingBatchResultDto::getStatus).toList(), contains(
+                201, 201, 201, 201, 201, 201, 201, 201, 201, 201, 409, 400, 404, 400));
+        assertThat(results.get(0).getBooking().getItem().getName(), equalTo("Drill"));
+        assertThat(results.get(10).getError(), equalTo("Item is already booked for this period"));
+        assertThat(results.get(12).getIndex(), equalTo(12));
+        assertThat(statistics.getEntityInsertCount(), equalTo(10L));
+        // пользователь, блокировка вещей, подтверждённые бронирования, блок id и одна пачка INSERT
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(5L));
+        assertThat(bookingRepository.findByItemId(item.getId(), Sort.by("start")), hasSize(11));
+
+        assertThrows(NotFoundException.class, () -> bookingService.createBookings(-1L,
+                new BookingBatchCreateDto(entries)));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(booker.getId(),
+                new BookingBatchCreateDto(List.of())));
+    }
+
     @Test
     void getUserBookings_shouldReturnBookings() {
         User owner = new User();
@@ -89,9 +175,90 @@ class BookingServiceIntegrationTest {
         entityManager.persist(booking);
         entityManager.flush();
 
-        List<BookingDto> results = bookingService.getUserBookings(booker.getId(), BookingState.ALL);
+        List<BookingDto> results = bookingService.getUserBookings(booker.getId(), BookingState.ALL,
+                0, 10, null, null);
 
         assertThat(results, hasSize(1));
         assertThat(results.get(0).getBooker().getId(), equalTo(booker.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookings_shouldPaginateByOffsetAndByCursor() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@email.com");
+        entityManager.persist(owner);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@email.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Powerful drill");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        entityManager.persist(item);
+
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.WAITING);
+            entityManager.persist(booking);
+        }
+        entityManager.flush();
+
+        List<BookingDto> all = bookingService.getUserBookings(booker.getId(), BookingState.FUTURE, 0, 10, null, null);
+        List<BookingDto> offsetPage = bookingService.getUserBookings(booker.getId(), BookingState.FUTURE, 2, 2,
+                null, null);
+        List<BookingDto> firstPage = bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, 0, 2,
+                null, null);
+        BookingDto cursor = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> cursorPage = bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, 0, 2,
+                cursor.getStart(), cursor.getId());
+
+        assertThat(all, hasSize(5));
+        assertThat(offsetPage, contains(all.get(2), all.get(3)));
+        assertThat(firstPage, contains(all.get(0), all.get(1)));
+        assertThat(cursorPage, contains(all.get(2), all.get(3)));
+    }
+
+    @Test
+    void bookingsVersion_shouldChangeWhenBookingsChangeOrStart() {
+        User owner = new User(null, "Owner", "owner@email.com");
+        entityManager.persist(owner);
+        User booker = new User(null, "Booker", "booker@email.com");
+        entityManager.persist(booker);
+        Item item = new Item(null, "Drill", "Powerful drill", true, owner.getId(), null);
+        entityManager.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING);
+        entityManager.persist(booking);
+        entityManager.flush();
+
+        String bookerVersion = bookingService.getUserBookingsVersion(booker.getId());
+        String ownerVersion = bookingService.getOwnerBookingsVersion(owner.getId());
+        assertThat(bookingService.getUserBookingsVersion(booker.getId()), equalTo(bookerVersion));
+
+        bookingService.updateBookingStatus(owner.getId(), booking.getId(), true);
+        String approvedVersion = bookingService.getUserBookingsVersion(booker.getId());
+        assertThat(approvedVersion, not(equalTo(bookerVersion)));
+        assertThat(bookingService.getOwnerBookingsVersion(owner.getId()), not(equalTo(ownerVersion)));
+
+        // название вещи входит в ответ списка бронирований
+        item.setName("Hammer drill");
+        entityManager.flush();
+        assertThat(bookingService.getUserBookingsVersion(booker.getId()), not(equalTo(approvedVersion)));
+
+        // наступление бронирования меняет ответ для CURRENT/FUTURE без изменения строк
+        assertThat(VersionToken.etag(bookingRepository.findBookerVersion(booker.getId(), start.plusHours(1))),
+                not(equalTo(VersionToken.etag(bookingRepository.findBookerVersion(booker.getId(), start.minusHours(1))))));
+
+        assertThrows(NotFoundException.class, () -> bookingService.getUserBookingsVersion(-1L));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.EmbeddedPostgresConfig;
+import ru.practicum.shareit.booking.dto.BookingBatchCreateDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.platform=postgresql",
+        "shareit.booking.overlap-constraint=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import({BookingServiceImpl.class, EmbeddedPostgresConfig.class, EntityCache.class, EntityCacheConfig.class})
+class BookingServicePostgresTest {
+    private final BookingService bookingService;
+    private final TestEntityManager entityManager;
+
+    @Test
+    void updateBookingStatus_shouldRejectOverlappingApproval() {
+        User owner = persistUser("Owner", "owner@email.com");
+        User first = persistUser("First", "first@email.com");
+        User second = persistUser("Second", "second@email.com");
+        Item item = persistItem(owner);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto approved = bookingService.createBooking(first.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(2)));
+        BookingDto overlapping = bookingService.createBooking(second.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(1), start.plusDays(3)));
+
+        bookingService.updateBookingStatus(owner.getId(), approved.getId(), true);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(owner.getId(), overlapping.getId(), true));
+    }
+
+    @Test
+    void updateBookingStatus_shouldAllowAdjacentApprovals() {
+        User owner = persistUser("Owner", "owner@email.com");
+        User booker = persistUser("Booker", "booker@email.com");
+        Item item = persistItem(owner);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto first = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start, start.plusDays(2)));
+        BookingDto second = bookingService.createBooking(booker.getId(),
+                new BookingCreateDto(item.getId(), start.plusDays(2), start.plusDays(4)));
+
+        bookingService.updateBookingStatus(owner.getId(), first.getId(), true);
+        BookingDto result = bookingService.updateBookingStatus(owner.getId(), second.getId(), true);
+
+        assertThat(result.getStatus(), equalTo(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void createBookings_shouldShareSequenceWithInsertsWithoutId() {
+        User owner = persistUser("Owner", "owner@email.com");
+        User booker = persistUser("Booker", "booker@email.com");
+        Item item = persistItem(owner);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<BookingBatchResultDto> first = bookingService.createBookings(booker.getId(), new BookingBatchCreateDto(
+                List.of(new BookingCreateDto(item.getId(), start, start.plusDays(1)),
+                        new BookingCreateDto(item.getId(), start.plusWeeks(1), start.plusWeeks(1).plusDays(1)))));
+        entityManager.flush();
+        // вставка в обход Hibernate берёт id из той же последовательности и не пересекается с его блоком
+        entityManager.getEntityManager().createNativeQuery("insert into bookings " +
+                        "(start_date, end_date, item_id, booker_id, status) values (?1, ?2, ?3, ?4, 'WAITING')")
+                .setParameter(1, start.plusWeeks(2))
+                .setParameter(2, start.plusWeeks(2).plusDays(1))
+                .setParameter(3, item.getId())
+                .setParameter(4, booker.getId())
+                .executeUpdate();
+        List<BookingBatchResultDto> second = bookingService.createBookings(booker.getId(), new BookingBatchCreateDto(
+                List.of(new BookingCreateDto(item.getId(), start.plusWeeks(3), start.plusWeeks(3).plusDays(1)))));
+        entityManager.flush();
+
+        assertThat(first.stream().map(BookingBatchResultDto::getStatus).toList(), contains(201, 201));
+        assertThat(second.get(0).getStatus(), equalTo(201));
+        assertThat(((Number) entityManager.getEntityManager()
+                .createNativeQuery("select count(distinct id) from bookings where item_id = ?1")
+                .setParameter(1, item.getId())
+                .getSingleResult()).longValue(), equalTo(4L));
+    }
+
+    private User persistUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return entityManager.persist(user);
+    }
+
+    private Item persistItem(User owner) {
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Powerful drill");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        return entityManager.persistAndFlush(item);
+    }
+}
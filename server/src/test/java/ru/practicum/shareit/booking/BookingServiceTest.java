@@ -5,16 +5,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -38,6 +48,12 @@ class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -54,10 +70,9 @@ class BookingServiceTest {
         Booking booking = new Booking(1L, createDto.getStart(), createDto.getEnd(),
                 item, user, BookingStatus.WAITING);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findOverlappingBookings(anyLong(), any(), any()))
-                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findBookingCheckForUpdate(1L, 1L, createDto.getStart(), createDto.getEnd()))
+                .thenReturn(Optional.of(check(item, 0)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingDto result = bookingService.createBooking(1L, createDto);
@@ -69,7 +84,6 @@ class BookingServiceTest {
 
     @Test
     void createBooking_shouldThrowException_whenItemNotAvailable() {
-        User user = new User(1L, "Booker", "booker@email.com");
         Item item = new Item(1L, "Drill", "Powerful drill", false, 2L, null);
         BookingCreateDto createDto = new BookingCreateDto(
                 1L,
@@ -77,8 +91,8 @@ class BookingServiceTest {
                 LocalDateTime.now().plusDays(2)
         );
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findBookingCheckForUpdate(1L, 1L, createDto.getStart(), createDto.getEnd()))
+                .thenReturn(Optional.of(check(item, 0)));
 
         assertThrows(IllegalArgumentException.class,
                 () -> bookingService.createBooking(1L, createDto));
@@ -86,7 +100,6 @@ class BookingServiceTest {
 
     @Test
     void createBooking_shouldThrowException_whenOwnerTriesToBook() {
-        User user = new User(1L, "Owner", "owner@email.com");
         Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
         BookingCreateDto createDto = new BookingCreateDto(
                 1L,
@@ -94,8 +107,8 @@ class BookingServiceTest {
                 LocalDateTime.now().plusDays(2)
         );
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findBookingCheckForUpdate(1L, 1L, createDto.getStart(), createDto.getEnd()))
+                .thenReturn(Optional.of(check(item, 0)));
 
         assertThrows(ForbiddenException.class,
                 () -> bookingService.createBooking(1L, createDto));
@@ -110,12 +123,70 @@ class BookingServiceTest {
                 LocalDateTime.now().plusDays(2), item, booker, BookingStatus.WAITING);
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         BookingDto result = bookingService.updateBookingStatus(2L, 1L, true);
 
         assertThat(result.getStatus(), equalTo(BookingStatus.APPROVED));
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void updateBookingStatus_shouldThrowConflict_whenOverlapConstraintViolated() {
+        User booker = new User(1L, "Booker", "booker@email.com");
+        Item item = new Item(1L, "Drill", "Powerful drill", true, 2L, null);
+        Booking booking = new Booking(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.WAITING);
+        ReflectionTestUtils.setField(bookingService, "overlapConstraint", true);
+
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint \"bookings_no_overlap\"")));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(2L, 1L, true));
+    }
+
+    @Test
+    void updateBookingStatus_shouldThrowConflict_whenApprovedBookingOverlaps() {
+        User booker = new User(1L, "Booker", "booker@email.com");
+        Item item = new Item(1L, "Drill", "Powerful drill", true, 2L, null);
+        Booking booking = new Booking(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.WAITING);
+        Booking approved = new Booking(2L, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(3), item, booker, BookingStatus.APPROVED);
+
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findOverlappingBookings(1L, booking.getStart(), booking.getEnd()))
+                .thenReturn(List.of(approved));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(2L, 1L, true));
+        verify(itemRepository).findByBookingIdForUpdate(1L);
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_shouldSkipRowLock_whenConstraintEnabled() {
+        User user = new User(1L, "Booker", "booker@email.com");
+        Item item = new Item(1L, "Drill", "Powerful drill", true, 2L, null);
+        BookingCreateDto createDto = new BookingCreateDto(
+                1L,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)
+        );
+        Booking booking = new Booking(1L, createDto.getStart(), createDto.getEnd(),
+                item, user, BookingStatus.WAITING);
+        ReflectionTestUtils.setField(bookingService, "overlapConstraint", true);
+
+        when(bookingRepository.findBookingCheck(1L, 1L)).thenReturn(Optional.of(check(item, 0)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        bookingService.createBooking(1L, createDto);
+
+        verify(bookingRepository, never()).findBookingCheckForUpdate(anyLong(), anyLong(), any(), any());
     }
 
     @Test
@@ -149,29 +220,89 @@ class BookingServiceTest {
 
     @Test
     void getUserBookings_shouldReturnAllBookings() {
-        User user = new User(1L, "User", "user@email.com");
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerId(anyLong(), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByBookerId(anyLong(), any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        List<BookingDto> result = bookingService.getUserBookings(1L, BookingState.ALL);
+        List<BookingDto> result = bookingService.getUserBookings(1L, BookingState.ALL, 0, 10, null, null);
 
         assertThat(result, empty());
-        verify(bookingRepository, times(1)).findByBookerId(anyLong(), any(Sort.class));
+        verify(bookingRepository, times(1)).findByBookerId(anyLong(), any(ScrollPosition.class), any(Limit.class), any(Sort.class));
     }
 
     @Test
     void getOwnerBookings_shouldReturnAllBookings() {
-        User user = new User(1L, "Owner", "owner@email.com");
+        when(entityCache.userExists(1L)).thenReturn(true);
+        when(bookingRepository.findByItemOwner(anyLong(), any(ScrollPosition.class), any(Limit.class), any(Sort.class)))
+                .thenReturn(Window.from(Collections.emptyList(), ScrollPosition::offset));
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemOwner(anyLong(), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
-
-        List<BookingDto> result = bookingService.getOwnerBookings(1L, BookingState.ALL);
+        List<BookingDto> result = bookingService.getOwnerBookings(1L, BookingState.ALL, 0, 10, null, null);
 
         assertThat(result, empty());
-        verify(bookingRepository, times(1)).findByItemOwner(anyLong(), any(Sort.class));
+        verify(bookingRepository, times(1)).findByItemOwner(anyLong(), any(ScrollPosition.class), any(Limit.class), any(Sort.class));
+    }
+
+    @Test
+    void getBookings_shouldThrowException_whenCursorIsIncomplete() {
+        when(entityCache.userExists(1L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getUserBookings(1L, BookingState.ALL,
+                0, 10, LocalDateTime.now(), null));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getOwnerBookings(1L, BookingState.ALL,
+                0, 10, null, 5L));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void createBooking_shouldThrowException_whenPeriodOverlaps() {
+        Item item = new Item(1L, "Drill", "Powerful drill", true, 2L, null);
+        BookingCreateDto createDto = new BookingCreateDto(
+                1L,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)
+        );
+
+        when(bookingRepository.findBookingCheckForUpdate(1L, 1L, createDto.getStart(), createDto.getEnd()))
+                .thenReturn(Optional.of(check(item, 1)));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(1L, createDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_shouldThrowUserNotFound_whenItemAndUserMissing() {
+        BookingCreateDto createDto = new BookingCreateDto(
+                1L,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)
+        );
+
+        when(bookingRepository.findBookingCheckForUpdate(1L, 1L, createDto.getStart(), createDto.getEnd()))
+                .thenReturn(Optional.empty());
+        when(entityCache.userExists(1L)).thenReturn(false);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> bookingService.createBooking(1L, createDto));
+        assertThat(exception.getMessage(), containsString("User"));
+    }
+
+    private static BookingCheck check(Item item, long overlaps) {
+        return new BookingCheck() {
+            @Override
+            public Item getItem() {
+                return item;
+            }
+
+            @Override
+            public Long getBookers() {
+                return 1L;
+            }
+
+            @Override
+            public Long getOverlaps() {
+                return overlaps;
+            }
+        };
     }
-}
\ No newline at end of file
+}
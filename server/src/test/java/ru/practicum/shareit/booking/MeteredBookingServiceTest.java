@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.common.ServiceTimer;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredBookingServiceTest {
+    @Mock
+    private BookingServiceImpl delegate;
+
+    @Test
+    void getBookings_shouldTimeEachStateAndCountErrors() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredBookingService service = new MeteredBookingService(delegate, registry, Tracer.NOOP);
+        BookingDto booking = new BookingDto();
+        when(delegate.getUserBookings(1L, BookingState.FUTURE, 0, 10, null, null)).thenReturn(List.of(booking));
+        when(delegate.getOwnerBookings(1L, BookingState.WAITING, 0, 10, null, null))
+                .thenThrow(new NotFoundException("User not found"));
+
+        assertThat(service.getUserBookings(1L, BookingState.FUTURE, 0, 10, null, null), contains(booking));
+        assertThrows(NotFoundException.class,
+                () -> service.getOwnerBookings(1L, BookingState.WAITING, 0, 10, null, null));
+
+        assertThat(registry.get(ServiceTimer.TIMER)
+                .tags("method", "getUserBookings", "state", "FUTURE", "exception", "none")
+                .timer().count(), equalTo(1L));
+        assertThat(registry.get(ServiceTimer.TIMER)
+                .tags("method", "getUserBookings", "state", "PAST", "exception", "none")
+                .timer().count(), equalTo(0L));
+        assertThat(registry.get(ServiceTimer.TIMER)
+                .tags("method", "getOwnerBookings", "state", "WAITING", "exception", "NotFoundException")
+                .timer().count(), equalTo(1L));
+        assertThat(registry.get(ServiceTimer.ERRORS)
+                .tags("service", "BookingService", "method", "getOwnerBookings", "state", "WAITING")
+                .counter().count(), equalTo(1.0));
+        // таймеры всех методов и состояний создаются заранее
+        assertThat(registry.find(ServiceTimer.TIMER).tag("method", "createBooking").tag("state", "none").timer(),
+                notNullValue());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.sql-metrics.statement-threshold=1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SqlMetricsFilterTest {
+    private final MockMvc mvc;
+    private final MeterRegistry registry;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    @Test
+    void request_shouldRecordStatementsTimeAndRowsPerEndpoint() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "sql-metrics-owner@email.com"));
+        for (int i = 0; i < 3; i++) {
+            itemRepository.save(new Item(null, "Drill " + i, "Powerful drill", true, owner.getId(), null));
+        }
+
+        MvcResult result = mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlMetricsFilter.TIME_HEADER, endsWith("ms")))
+                .andReturn();
+        int statements = Integer.parseInt(result.getResponse().getHeader(SqlMetricsFilter.STATEMENTS_HEADER));
+        assertThat(statements, greaterThan(0));
+        assertThat(Long.parseLong(result.getResponse().getHeader(SqlMetricsFilter.ROWS_HEADER)),
+                greaterThanOrEqualTo(3L));
+
+        assertThat(registry.get("request.sql.statements").tags("method", "GET", "uri", "/items")
+                .summary().totalAmount(), equalTo((double) statements));
+        assertThat(registry.get("request.sql.rows").tags("method", "GET", "uri", "/items")
+                .summary().totalAmount(), greaterThanOrEqualTo(3.0));
+        assertThat(registry.get("request.sql.time").tags("method", "GET", "uri", "/items")
+                .timer().count(), equalTo(1L));
+
+        // порог 1: создание пользователя берёт блок id из последовательности и вставляет строку
+        mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"User\",\"email\":\"sql-metrics-user@email.com\"}"))
+                .andExpect(status().isCreated());
+        assertThat(registry.get("request.sql.statements.exceeded").tags("method", "POST", "uri", "/users")
+                .counter().count(), equalTo(1.0));
+
+        // ответ с ошибкой тоже получает заголовки
+        mvc.perform(get("/users/{userId}", -1L))
+                .andExpect(status().isNotFound())
+                .andExpect(header().exists(SqlMetricsFilter.STATEMENTS_HEADER));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// учёт SQL по запросам выключен: span-ы операторов от него не зависят
+@SpringBootTest(properties = {"shareit.tracing.file=target/traces/tracing-test.jsonl",
+        "shareit.sql-metrics.enabled=false"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class TracingTest {
+    // файл дописывается между запусками, поэтому трасса каждый раз новая
+    private static final String TRACE_ID = UUID.randomUUID().toString().replace("-", "");
+
+    private final MockMvc mvc;
+    private final SdkTracerProvider tracerProvider;
+    private final ObjectMapper mapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    @Test
+    void request_shouldContinueGatewayTraceThroughServiceAndJdbc() throws Exception {
+        User owner = userRepository.save(new User(null, "Owner", "tracing-owner@email.com"));
+        itemRepository.save(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+
+        // заголовок, который выставляет шлюз
+        mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId())
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01"))
+                .andExpect(status().isOk());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        List<JsonNode> spans = Files.readAllLines(Path.of("target/traces/tracing-test.jsonl")).stream()
+                .map(this::parse)
+                .filter(span -> span.get("traceId").asText().equals(TRACE_ID))
+                .toList();
+        Map<String, JsonNode> byId = spans.stream()
+                .collect(Collectors.toMap(span -> span.get("spanId").asText(), Function.identity()));
+        JsonNode request = spans.stream().filter(span -> span.get("kind").asText().equals("SERVER"))
+                .findFirst().orElseThrow();
+        JsonNode service = spans.stream().filter(span -> span.get("name").asText()
+                .equals("ItemService.getItemsByOwner")).findFirst().orElseThrow();
+        List<JsonNode> statements = spans.stream().filter(span -> span.get("name").asText().startsWith("jdbc "))
+                .toList();
+
+        assertThat(request.get("parentSpanId").asText(), equalTo("00f067aa0ba902b7"));
+        assertThat(request.get("service").asText(), equalTo("shareit-server"));
+        assertThat(byId.get(service.get("parentSpanId").asText()), equalTo(request));
+        assertThat(statements.stream().filter(statement -> statement.get("parentSpanId").asText()
+                .equals(service.get("spanId").asText())).toList(), not(empty()));
+        // ETag и список вещей — два вызова сервиса, операторы SQL вложены в них
+        for (JsonNode statement : statements) {
+            JsonNode parent = byId.get(statement.get("parentSpanId").asText());
+            assertThat(parent.get("name").asText(), startsWith("ItemService."));
+            assertThat(parent.get("parentSpanId").asText(), equalTo(request.get("spanId").asText()));
+            assertThat(statement.get("attributes").get("db.statement").asText(), containsStringIgnoringCase("select"));
+        }
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return mapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
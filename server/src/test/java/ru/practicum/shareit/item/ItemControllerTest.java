@@ -9,10 +9,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -92,7 +95,7 @@ class ItemControllerTest {
     void searchItems_shouldReturn200() throws Exception {
         ItemDto responseDto = new ItemDto(1L, "Drill", "Powerful drill", true, null);
 
-        when(itemService.searchItems(anyString())).thenReturn(List.of(responseDto));
+        when(itemService.searchItems(anyString(), anyInt(), anyInt(), isNull(), isNull())).thenReturn(List.of(responseDto));
 
         mockMvc.perform(get("/items/search")
                         .param("text", "drill"))
@@ -100,6 +103,54 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 
+    @Test
+    void searchItems_shouldPassPeriod() throws Exception {
+        ItemDto responseDto = new ItemDto(1L, "Drill", "Powerful drill", true, null);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+
+        when(itemService.searchItems("drill", 0, 10, start, start.plusDays(2))).thenReturn(List.of(responseDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("start", "2030-01-04T10:00:00")
+                        .param("end", "2030-01-06T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void getAvailability_shouldReturn200() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+
+        when(itemService.getAvailability(1L, from, to)).thenReturn(new ItemAvailabilityDto(1L, from, to, true));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.available").value(true));
+    }
+
+    @Test
+    void getAvailability_shouldReturn200ForSeveralItems() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+
+        when(itemService.getAvailability(List.of(1L, 2L), from, to)).thenReturn(List.of(
+                new ItemAvailabilityDto(1L, from, to, true),
+                new ItemAvailabilityDto(2L, from, to, false)));
+
+        mockMvc.perform(get("/items/availability")
+                        .param("ids", "1,2")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].itemId").value(2))
+                .andExpect(jsonPath("$[1].available").value(false));
+    }
+
     @Test
     void addComment_shouldReturn200() throws Exception {
         CommentDto commentDto = new CommentDto();
@@ -118,4 +169,28 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItem_shouldReturn304WhenEtagMatches() throws Exception {
+        when(itemService.getItemVersion(1L, 1L)).thenReturn("1.1.4.0.0-0.0.0.0.0-0.0.0.0.0-1");
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1.1.4.0.0-0.0.0.0.0-0.0.0.0.0-1\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemService, never()).getItem(anyLong(), anyLong());
+    }
+
+    @Test
+    void getItemsByOwner_shouldReturn304WhenEtagMatches() throws Exception {
+        when(itemService.getItemsByOwnerVersion(1L)).thenReturn("1.1.4.0.0-0.0.0.0.0-0.0.0.0.0");
+
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1.1.4.0.0-0.0.0.0.0-0.0.0.0.0\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemService, never()).getItemsByOwner(anyLong());
+    }
+}
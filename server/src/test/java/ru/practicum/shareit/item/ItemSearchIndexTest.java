@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemSearchIndexCheck;
+import ru.practicum.shareit.item.dto.ItemSearchIndexStats;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemSearchIndex index = new ItemSearchIndex(itemRepository, SearchMode.MEMORY);
+
+    @Test
+    void search_shouldMatchSubstringIgnoringCase() {
+        when(itemRepository.findByAvailableTrueOrderById()).thenReturn(List.of(
+                new Item(1L, "Аккумуляторная дрель", "Дрель с зарядкой", true, 1L, null),
+                new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, 1L, null),
+                new Item(3L, "Клей", "Клей Момент", true, 2L, null)));
+        index.rebuild();
+
+        assertThat(index.search("дРелЬ", 0, 10), contains(hasProperty("id", equalTo(1L))));
+        assertThat(index.search("аккУМУляторная", 0, 10), contains(
+                hasProperty("id", equalTo(1L)), hasProperty("id", equalTo(2L))));
+        assertThat(index.search("ей", 0, 10), contains(hasProperty("id", equalTo(3L))));
+        assertThat(index.search("пила", 0, 10), empty());
+    }
+
+    @Test
+    void search_shouldPaginateInIdOrder() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(new Item(id, "Дрель " + id, "Описание", true, 1L, null));
+        }
+
+        assertThat(index.search("дрель", 1, 2), contains(
+                hasProperty("id", equalTo(2L)), hasProperty("id", equalTo(3L))));
+        assertThat(index.search("дрель", 4, 2), contains(hasProperty("id", equalTo(5L))));
+    }
+
+    @Test
+    void put_shouldReplaceAndDropUnavailableItems() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        index.put(new Item(1L, "Перфоратор", "Ударный", true, 1L, null));
+        index.put(new Item(2L, "Дрель", "Сломана", true, 1L, null));
+        index.put(new Item(2L, "Дрель", "Сломана", false, 1L, null));
+
+        assertThat(index.search("дрель", 0, 10), empty());
+        assertThat(index.search("перфоратор", 0, 10), hasSize(1));
+        assertThat(index.stats().getItems(), equalTo(1));
+    }
+
+    @Test
+    void onUserDeleted_shouldRebuildFromDatabase() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        index.put(new Item(2L, "Дрель", "Простая", true, 2L, null));
+        index.put(new Item(3L, "Дрель", "По запросу", true, 2L, 10L));
+        // в базе не осталось вещей пользователя 1 и вещи, созданной по его запросу 10
+        when(itemRepository.findByAvailableTrueOrderById()).thenReturn(List.of(
+                new Item(2L, "Дрель", "Простая", true, 2L, null)));
+
+        index.onUserDeleted(new UserDeletedEvent(1L));
+
+        assertThat(index.search("дрель", 0, 10), contains(hasProperty("id", equalTo(2L))));
+    }
+
+    @Test
+    void rebuild_shouldServeSearchesAndKeepPutsWhileLoading() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        when(itemRepository.findByAvailableTrueOrderById()).thenAnswer(invocation -> {
+            // поиск из другого потока не ждёт загрузки
+            assertThat(CompletableFuture.supplyAsync(() -> index.search("дрель", 0, 10)).get(5, TimeUnit.SECONDS),
+                    hasSize(1));
+            index.put(new Item(2L, "Дрель", "Новая", true, 1L, null));
+            return List.of(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("дрель", 0, 10), contains(
+                hasProperty("id", equalTo(1L)), hasProperty("id", equalTo(2L))));
+    }
+
+    @Test
+    void stats_shouldAccountPostingsAndMemory() {
+        index.put(new Item(1L, "abcd", "abcd", true, 1L, null));
+
+        ItemSearchIndexStats stats = index.stats();
+
+        assertThat(stats.isEnabled(), is(true));
+        assertThat(stats.getTrigrams(), equalTo(2));
+        assertThat(stats.getPostings(), equalTo(2L));
+        assertThat(stats.getEstimatedBytes(), greaterThan(0L));
+    }
+
+    @Test
+    void check_shouldReportDifferencesWithDatabase() {
+        index.put(new Item(1L, "Дрель", "Ударная", true, 1L, null));
+        index.put(new Item(2L, "Дрель", "Простая", true, 1L, null));
+        when(itemRepository.search(eq("дрель"), any(Pageable.class))).thenReturn(List.of(
+                new Item(2L, "Дрель", "Простая", true, 1L, null),
+                new Item(3L, "Дрель", "Новая", true, 1L, null)));
+
+        ItemSearchIndexCheck check = index.check("дрель");
+
+        assertThat(check.isConsistent(), is(false));
+        assertThat(check.getMissing(), contains(3L));
+        assertThat(check.getUnexpected(), contains(1L));
+    }
+
+    @Test
+    void events_shouldBeIgnored_whenDisabled() {
+        ItemSearchIndex disabled = new ItemSearchIndex(itemRepository, SearchMode.SUBSTRING);
+
+        disabled.onItemSaved(new ItemSavedEvent(new Item(1L, "Дрель", "Ударная", true, 1L, null)));
+
+        assertThat(disabled.search("дрель", 0, 10), empty());
+        assertThat(disabled.stats().isEnabled(), is(false));
+    }
+}
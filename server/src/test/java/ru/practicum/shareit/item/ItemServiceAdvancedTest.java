@@ -5,15 +5,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -24,7 +24,7 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +32,9 @@ class ItemServiceAdvancedTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Mock
     private UserRepository userRepository;
 
@@ -41,6 +44,15 @@ class ItemServiceAdvancedTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -83,17 +95,16 @@ class ItemServiceAdvancedTest {
     @Test
     void getItem_shouldReturnItemWithBookings_whenOwner() {
         Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
-        User booker = new User(2L, "Booker", "booker@email.com");
 
-        Booking lastBooking = new Booking(1L, LocalDateTime.now().minusDays(2),
-                LocalDateTime.now().minusDays(1), item, booker, BookingStatus.APPROVED);
-        Booking nextBooking = new Booking(2L, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.APPROVED);
+        ItemBookingDto lastBooking = new ItemBookingDto(1L, 1L, 2L,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        ItemBookingDto nextBooking = new ItemBookingDto(1L, 2L, 2L,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(commentRepository.findByItem_Id(1L)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findByItemId(anyLong(), any(Sort.class)))
-                .thenReturn(List.of(nextBooking, lastBooking));
+        when(bookingRepository.findLastBookings(eq(List.of(1L)), any())).thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookings(eq(List.of(1L)), any())).thenReturn(List.of(nextBooking));
 
         ItemWithBookingsDto result = itemService.getItem(1L, 1L);
 
@@ -119,16 +130,15 @@ class ItemServiceAdvancedTest {
     @Test
     void getItemsByOwner_shouldReturnItemsWithBookings() {
         Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
-        User booker = new User(2L, "Booker", "booker@email.com");
 
-        Booking lastBooking = new Booking(1L, LocalDateTime.now().minusDays(2),
-                LocalDateTime.now().minusDays(1), item, booker, BookingStatus.APPROVED);
-        Booking nextBooking = new Booking(2L, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.APPROVED);
+        ItemBookingDto lastBooking = new ItemBookingDto(1L, 1L, 2L,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        ItemBookingDto nextBooking = new ItemBookingDto(1L, 2L, 2L,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
 
         when(itemRepository.findAllByOwner(1L)).thenReturn(List.of(item));
-        when(bookingRepository.findByItemId(anyLong(), any(Sort.class)))
-                .thenReturn(List.of(nextBooking, lastBooking));
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(List.of(nextBooking));
         when(commentRepository.findByItem_IdIn(any())).thenReturn(Collections.emptyList());
 
         List<ItemWithBookingsDto> result = itemService.getItemsByOwner(1L);
@@ -149,31 +159,28 @@ class ItemServiceAdvancedTest {
 
     @Test
     void searchItems_shouldReturnEmptyList_whenTextIsNull() {
-        List<ItemDto> result = itemService.searchItems(null);
+        List<ItemDto> result = itemService.searchItems(null, 0, 10, null, null);
 
         assertThat(result, empty());
     }
 
     @Test
     void searchItems_shouldReturnEmptyList_whenTextIsWhitespace() {
-        List<ItemDto> result = itemService.searchItems("   ");
+        List<ItemDto> result = itemService.searchItems("   ", 0, 10, null, null);
 
         assertThat(result, empty());
     }
 
     @Test
-    void getItemsByOwner_shouldHandleRejectedBookings() {
+    void getItemsByOwner_shouldHandleItemWithoutPastBookings() {
         Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
-        User booker = new User(2L, "Booker", "booker@email.com");
 
-        Booking rejectedBooking = new Booking(1L, LocalDateTime.now().minusDays(2),
-                LocalDateTime.now().minusDays(1), item, booker, BookingStatus.REJECTED);
-        Booking approvedBooking = new Booking(2L, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.APPROVED);
+        ItemBookingDto nextBooking = new ItemBookingDto(1L, 2L, 2L,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
 
         when(itemRepository.findAllByOwner(1L)).thenReturn(List.of(item));
-        when(bookingRepository.findByItemId(anyLong(), any(Sort.class)))
-                .thenReturn(List.of(approvedBooking, rejectedBooking));
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(List.of(nextBooking));
         when(commentRepository.findByItem_IdIn(any())).thenReturn(Collections.emptyList());
 
         List<ItemWithBookingsDto> result = itemService.getItemsByOwner(1L);
@@ -1,29 +1,52 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Import(ItemServiceImpl.class)
+@Import({ItemServiceImpl.class, ItemSearchIndex.class, BookingAvailabilityIndex.class, EntityCache.class, EntityCacheConfig.class})
 class ItemServiceIntegrationTest {
     private final ItemService itemService;
     private final TestEntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
 
     @Test
     void createItem_shouldCreateItemWithRequestId() {
@@ -83,4 +106,272 @@ class ItemServiceIntegrationTest {
         assertThat(result.getAvailable(), is(true));
         assertThat(result.getRequestId(), nullValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItem_shouldReturnLastAndNextBookingsForOwner() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@email.com");
+        entityManager.persist(owner);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@email.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Powerful drill");
+        item.setAvailable(true);
+        item.setOwner(owner.getId());
+        entityManager.persist(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(new Booking(null, now.minusDays(10), now.minusDays(9),
+                item, booker, BookingStatus.APPROVED));
+        Booking last = new Booking(null, now.minusDays(5), now.minusDays(4),
+                item, booker, BookingStatus.APPROVED);
+        entityManager.persist(last);
+        entityManager.persist(new Booking(null, now.minusDays(1), now.minusHours(1),
+                item, booker, BookingStatus.REJECTED));
+        Booking next = new Booking(null, now.plusDays(1), now.plusDays(2),
+                item, booker, BookingStatus.WAITING);
+        entityManager.persist(next);
+        entityManager.persist(new Booking(null, now.plusDays(5), now.plusDays(6),
+                item, booker, BookingStatus.APPROVED));
+        entityManager.flush();
+
+        ItemWithBookingsDto result = itemService.getItem(owner.getId(), item.getId());
+
+        assertThat(result.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(result.getLastBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(result.getNextBooking().getId(), equalTo(next.getId()));
+    }
+
+    @Test
+    void getItemsByOwner_shouldIssueFixedNumberOfQueries() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@email.com");
+        entityManager.persist(owner);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 20; i++) {
+            User booker = new User();
+            booker.setName("Booker " + i);
+            booker.setEmail("booker" + i + "@email.com");
+            entityManager.persist(booker);
+
+            Item item = new Item();
+            item.setName("Item " + i);
+            item.setDescription("Description " + i);
+            item.setAvailable(true);
+            item.setOwner(owner.getId());
+            entityManager.persist(item);
+
+            entityManager.persist(new Booking(null, now.minusDays(3), now.minusDays(2),
+                    item, booker, BookingStatus.APPROVED));
+            entityManager.persist(new Booking(null, now.plusDays(1), now.plusDays(2),
+                    item, booker, BookingStatus.APPROVED));
+            entityManager.persist(new Comment(null, "Nice " + i, item, booker, now.minusDays(1)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemWithBookingsDto> result = itemService.getItemsByOwner(owner.getId());
+
+        assertThat(result, hasSize(20));
+        assertThat(result.get(0).getLastBooking(), notNullValue());
+        assertThat(result.get(0).getNextBooking(), notNullValue());
+        assertThat(result.get(0).getComments().get(0).getAuthorName(), startsWith("Booker"));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(4L));
+    }
+
+    @Test
+    void searchItems_shouldMatchSubstringAndPaginate() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@email.com");
+        entityManager.persist(owner);
+
+        for (int i = 0; i < 5; i++) {
+            Item item = new Item();
+            item.setName("Аккумуляторная дрель " + i);
+            item.setDescription("Дрель с зарядкой");
+            item.setAvailable(i != 4);
+            item.setOwner(owner.getId());
+            entityManager.persist(item);
+        }
+        entityManager.flush();
+
+        List<ItemDto> firstPage = itemService.searchItems("дРЕль", 0, 3, null, null);
+        List<ItemDto> secondPage = itemService.searchItems("дРЕль", 3, 3, null, null);
+
+        assertThat(firstPage, hasSize(3));
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.get(0).getName(), equalTo("Аккумуляторная дрель 3"));
+        // смещение не кратно размеру страницы
+        assertThat(itemService.searchItems("дРЕль", 1, 3, null, null).stream().map(ItemDto::getName).toList(),
+                contains("Аккумуляторная дрель 1", "Аккумуляторная дрель 2", "Аккумуляторная дрель 3"));
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchItems("дрель", 0, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> itemService.searchItems("дрель", -1, 10, null, null));
+    }
+
+    @Test
+    void searchItems_shouldExcludeItemsBookedForPeriod() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@email.com");
+        entityManager.persist(owner);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@email.com");
+        entityManager.persist(booker);
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        BookingStatus[] statuses = {BookingStatus.APPROVED, BookingStatus.WAITING, null};
+        for (BookingStatus status : statuses) {
+            Item item = new Item();
+            item.setName("Дрель " + status);
+            item.setDescription("Дрель с зарядкой");
+            item.setAvailable(true);
+            item.setOwner(owner.getId());
+            entityManager.persist(item);
+            if (status != null) {
+                entityManager.persist(new Booking(null, start, start.plusDays(2), item, booker, status));
+            }
+        }
+        entityManager.flush();
+
+        List<ItemDto> weekend = itemService.searchItems("дрель", 0, 10, start.plusDays(1), start.plusDays(3));
+        List<ItemDto> nextWeek = itemService.searchItems("дрель", 0, 10, start.plusDays(2), start.plusDays(4));
+
+        assertThat(weekend, contains(hasProperty("name", equalTo("Дрель WAITING")),
+                hasProperty("name", equalTo("Дрель null"))));
+        assertThat(nextWeek, hasSize(3));
+    }
+
+    @Test
+    void getAvailability_shouldConsiderWaitingAndApprovedBookings() {
+        User owner = new User();
+        owner.setName("Owner");
+        owner.setEmail("owner@email.com");
+        entityManager.persist(owner);
+
+        User booker = new User();
+        booker.setName("Booker");
+        booker.setEmail("booker@email.com");
+        entityManager.persist(booker);
+
+        Item booked = new Item();
+        booked.setName("Drill");
+        booked.setDescription("Powerful drill");
+        booked.setAvailable(true);
+        booked.setOwner(owner.getId());
+        entityManager.persist(booked);
+
+        Item rejected = new Item();
+        rejected.setName("Saw");
+        rejected.setDescription("Sharp saw");
+        rejected.setAvailable(true);
+        rejected.setOwner(owner.getId());
+        entityManager.persist(rejected);
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Booking waiting = new Booking(null, start, start.plusDays(2), booked, booker, BookingStatus.WAITING);
+        entityManager.persist(waiting);
+        Booking declined = new Booking(null, start, start.plusDays(2), rejected, booker, BookingStatus.REJECTED);
+        entityManager.persist(declined);
+        entityManager.flush();
+        availabilityIndex.rebuild();
+
+        ItemAvailabilityDto overlapping = itemService.getAvailability(booked.getId(), start.plusDays(1), start.plusDays(3));
+        ItemAvailabilityDto adjacent = itemService.getAvailability(booked.getId(), start.plusDays(2), start.plusDays(3));
+        List<ItemAvailabilityDto> bulk = itemService.getAvailability(
+                List.of(booked.getId(), rejected.getId(), -1L), start, start.plusHours(1));
+
+        assertThat(overlapping.isAvailable(), is(false));
+        assertThat(adjacent.isAvailable(), is(true));
+        assertThat(bulk, contains(
+                allOf(hasProperty("itemId", equalTo(booked.getId())), hasProperty("available", is(false))),
+                allOf(hasProperty("itemId", equalTo(rejected.getId())), hasProperty("available", is(true)))));
+    }
+
+    @Test
+    void getAvailability_shouldSeeBookingsEndedBeforeNow() {
+        User owner = new User(null, "Owner", "owner@email.com");
+        entityManager.persist(owner);
+        User booker = new User(null, "Booker", "booker@email.com");
+        entityManager.persist(booker);
+        Item item = new Item(null, "Drill", "Powerful drill", true, owner.getId(), null);
+        entityManager.persist(item);
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(new Booking(null, now.minusHours(3), now.minusHours(1), item, booker,
+                BookingStatus.APPROVED));
+        entityManager.flush();
+        availabilityIndex.rebuild();
+
+        ItemAvailabilityDto past = itemService.getAvailability(item.getId(), now.minusDays(1), now.plusDays(1));
+        List<ItemAvailabilityDto> bulk = itemService.getAvailability(List.of(item.getId()), now.minusDays(1),
+                now.plusDays(1));
+        ItemAvailabilityDto future = itemService.getAvailability(item.getId(), now.plusHours(1), now.plusDays(1));
+
+        assertThat(past.isAvailable(), is(false));
+        assertThat(bulk, contains(hasProperty("available", is(false))));
+        assertThat(future.isAvailable(), is(true));
+    }
+
+    @Test
+    void getItemVersion_shouldChangeWithCommentsAndDependOnViewer() {
+        User owner = new User(null, "Owner", "owner@email.com");
+        entityManager.persist(owner);
+        User author = new User(null, "Author", "author@email.com");
+        entityManager.persist(author);
+        Item item = new Item(null, "Drill", "Powerful drill", true, owner.getId(), null);
+        entityManager.persist(item);
+        entityManager.flush();
+
+        String ownerVersion = itemService.getItemVersion(owner.getId(), item.getId());
+        String ownerItemsVersion = itemService.getItemsByOwnerVersion(owner.getId());
+        assertThat(itemService.getItemVersion(author.getId(), item.getId()), not(equalTo(ownerVersion)));
+
+        entityManager.persist(new Comment(null, "Great drill", item, author, LocalDateTime.now()));
+        entityManager.flush();
+        String commentedVersion = itemService.getItemVersion(owner.getId(), item.getId());
+        assertThat(commentedVersion, not(equalTo(ownerVersion)));
+        assertThat(itemService.getItemsByOwnerVersion(owner.getId()), not(equalTo(ownerItemsVersion)));
+
+        // имя автора отзыва входит в карточку вещи
+        author.setName("Renamed");
+        entityManager.flush();
+        assertThat(itemService.getItemVersion(owner.getId(), item.getId()), not(equalTo(commentedVersion)));
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemVersion(owner.getId(), -1L));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateItem_shouldRefreshSecondLevelCache() {
+        User owner = userRepository.save(new User(null, "Cached Owner", "cached-owner@email.com"));
+        try {
+            Item item = itemRepository.save(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+            itemService.getItem(owner.getId(), item.getId());
+
+            itemService.updateItem(owner.getId(), item.getId(), new ItemUpdateDto("Hammer", null, null));
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+            ItemWithBookingsDto result = itemService.getItem(owner.getId(), item.getId());
+
+            assertThat(result.getName(), equalTo("Hammer"));
+            assertThat(statistics.getEntityLoadCount(), equalTo(0L));
+            assertThat(statistics.getDomainDataRegionStatistics(EntityCacheConfig.ITEMS).getHitCount(), equalTo(1L));
+        } finally {
+            userRepository.deleteById(owner.getId());
+        }
+    }
+}
@@ -5,7 +5,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
@@ -30,6 +36,9 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
     @Mock
     private UserRepository userRepository;
 
@@ -39,6 +48,15 @@ class ItemServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -48,7 +66,7 @@ class ItemServiceTest {
         ItemCreateDto createDto = new ItemCreateDto("Drill", "Powerful drill", true, null);
         Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto result = itemService.createItem(1L, createDto);
@@ -89,7 +107,8 @@ class ItemServiceTest {
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(commentRepository.findByItem_Id(1L)).thenReturn(Collections.emptyList());
-        when(bookingRepository.findByItemId(anyLong(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastBookings(any(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(any(), any())).thenReturn(Collections.emptyList());
 
         ItemWithBookingsDto result = itemService.getItem(1L, 1L);
 
@@ -99,24 +118,58 @@ class ItemServiceTest {
 
     @Test
     void searchItems_shouldReturnEmptyList_whenTextIsBlank() {
-        List<ItemDto> result = itemService.searchItems("");
+        List<ItemDto> result = itemService.searchItems("", 0, 10, null, null);
 
         assertThat(result, empty());
-        verify(itemRepository, never()).search(anyString());
+        verify(itemRepository, never()).search(anyString(), any(Pageable.class));
     }
 
     @Test
     void searchItems_shouldReturnItems() {
         Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
 
-        when(itemRepository.search("drill")).thenReturn(List.of(item));
+        when(itemRepository.search("drill", OffsetPageRequest.of(0, 10))).thenReturn(List.of(item));
 
-        List<ItemDto> result = itemService.searchItems("drill");
+        List<ItemDto> result = itemService.searchItems("drill", 0, 10, null, null);
 
         assertThat(result, hasSize(1));
         assertThat(result.get(0).getName(), equalTo("Drill"));
     }
 
+    @Test
+    void searchItems_shouldUseRankedSearch_whenFullTextMode() {
+        Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
+        ReflectionTestUtils.setField(itemService, "searchMode", SearchMode.FULLTEXT);
+
+        when(itemRepository.searchRanked("drill", OffsetPageRequest.of(5, 5))).thenReturn(List.of(item));
+
+        List<ItemDto> result = itemService.searchItems("drill", 5, 5, null, null);
+
+        assertThat(result, hasSize(1));
+        verify(itemRepository, never()).search(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void searchItems_shouldExcludeBookedItems_whenPeriodGiven() {
+        Item item = new Item(1L, "Drill", "Powerful drill", true, 1L, null);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        ReflectionTestUtils.setField(itemService, "searchMode", SearchMode.MEMORY);
+
+        when(itemRepository.searchAvailable("drill", start, end, OffsetPageRequest.of(0, 10))).thenReturn(List.of(item));
+
+        List<ItemDto> result = itemService.searchItems("drill", 0, 10, start, end);
+
+        assertThat(result, hasSize(1));
+        verify(itemSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void searchItems_shouldThrowException_whenOnlyStartGiven() {
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.searchItems("drill", 0, 10, LocalDateTime.now(), null));
+    }
+
     @Test
     void addComment_shouldAddComment() {
         User user = new User(1L, "User", "user@email.com");
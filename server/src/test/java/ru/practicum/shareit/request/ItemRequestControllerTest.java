@@ -15,6 +15,8 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -106,4 +108,16 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.description").value("Need a drill"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRequest_shouldReturn304WhenEtagMatches() throws Exception {
+        when(itemRequestService.getRequestVersion(1L, 1L)).thenReturn("1.1.2.0.0-1.1.3.0.0-0.0.0.0.0");
+
+        mockMvc.perform(get("/requests/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1.1.2.0.0-1.1.3.0.0-0.0.0.0.0\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemRequestService, never()).getRequest(anyLong(), anyLong());
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.common.EntityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -36,6 +37,9 @@ class ItemRequestServiceAdvancedTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -49,7 +53,7 @@ class ItemRequestServiceAdvancedTest {
 
     @Test
     void getUserRequests_shouldThrowNotFoundException_whenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(entityCache.userExists(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getUserRequests(1L));
@@ -61,7 +65,7 @@ class ItemRequestServiceAdvancedTest {
         ItemRequest request = new ItemRequest(1L, "Need a drill", user, LocalDateTime.now());
         Item item = new Item(1L, "Drill", "Powerful drill", true, 2L, 1L);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findByRequestorId(anyLong(), any(Sort.class)))
                 .thenReturn(List.of(request));
         when(itemRepository.findByRequestIn(any())).thenReturn(List.of(item));
@@ -75,7 +79,7 @@ class ItemRequestServiceAdvancedTest {
 
     @Test
     void getAllRequests_shouldThrowNotFoundException_whenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(entityCache.userExists(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getAllRequests(1L, 0, 10));
@@ -88,7 +92,7 @@ class ItemRequestServiceAdvancedTest {
         ItemRequest request = new ItemRequest(1L, "Need a drill", user2, LocalDateTime.now());
         Item item = new Item(1L, "Drill", "Powerful drill", true, 3L, 1L);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findByRequestorIdNot(anyLong(), any(Pageable.class)))
                 .thenReturn(List.of(request));
         when(itemRepository.findByRequestIn(any())).thenReturn(List.of(item));
@@ -101,7 +105,7 @@ class ItemRequestServiceAdvancedTest {
 
     @Test
     void getRequest_shouldThrowNotFoundException_whenUserNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(entityCache.userExists(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getRequest(1L, 1L));
@@ -114,7 +118,7 @@ class ItemRequestServiceAdvancedTest {
         Item item1 = new Item(1L, "Drill 1", "Description 1", true, 2L, 1L);
         Item item2 = new Item(2L, "Drill 2", "Description 2", true, 3L, 1L);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(request));
         when(itemRepository.findByRequest(1L)).thenReturn(List.of(item1, item2));
 
@@ -7,7 +7,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
@@ -17,11 +23,12 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Import({ItemRequestServiceImpl.class, ItemServiceImpl.class})
+@Import({ItemRequestServiceImpl.class, ItemServiceImpl.class, ItemSearchIndex.class, BookingAvailabilityIndex.class, EntityCache.class, EntityCacheConfig.class})
 class ItemRequestServiceIntegrationTest {
     private final ItemRequestService itemRequestService;
     private final TestEntityManager entityManager;
@@ -116,4 +123,26 @@ class ItemRequestServiceIntegrationTest {
         assertThat(result.getDescription(), equalTo("Need a drill"));
         assertThat(result.getItems(), notNullValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void requestVersion_shouldChangeWhenItemAnswersRequest() {
+        User requestor = new User(null, "Requestor", "requestor@email.com");
+        entityManager.persist(requestor);
+        User owner = new User(null, "Owner", "owner@email.com");
+        entityManager.persist(owner);
+        ItemRequest request = new ItemRequest(null, "Need a drill", requestor, LocalDateTime.now());
+        entityManager.persist(request);
+        entityManager.flush();
+
+        String requestsVersion = itemRequestService.getUserRequestsVersion(requestor.getId());
+        String requestVersion = itemRequestService.getRequestVersion(owner.getId(), request.getId());
+
+        entityManager.persist(new Item(null, "Drill", "Powerful drill", true, owner.getId(), request.getId()));
+        entityManager.flush();
+
+        assertThat(itemRequestService.getUserRequestsVersion(requestor.getId()), not(equalTo(requestsVersion)));
+        assertThat(itemRequestService.getRequestVersion(owner.getId(), request.getId()), not(equalTo(requestVersion)));
+        assertThrows(NotFoundException.class, () -> itemRequestService.getRequestVersion(owner.getId(), -1L));
+        assertThrows(NotFoundException.class, () -> itemRequestService.getUserRequestsVersion(-1L));
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.common.EntityCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
@@ -37,6 +38,9 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityCache entityCache;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -61,7 +65,7 @@ class ItemRequestServiceTest {
         User user = new User(1L, "User", "user@email.com");
         ItemRequest request = new ItemRequest(1L, "Need a drill", user, LocalDateTime.now());
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findByRequestorId(anyLong(), any(Sort.class)))
                 .thenReturn(List.of(request));
         when(itemRepository.findByRequestIn(any())).thenReturn(Collections.emptyList());
@@ -76,7 +80,7 @@ class ItemRequestServiceTest {
     void getAllRequests_shouldReturnRequests() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findByRequestorIdNot(anyLong(), any(Pageable.class)))
                 .thenReturn(Collections.emptyList());
 
@@ -90,7 +94,7 @@ class ItemRequestServiceTest {
         User user = new User(1L, "User", "user@email.com");
         ItemRequest request = new ItemRequest(1L, "Need a drill", user, LocalDateTime.now());
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(request));
         when(itemRepository.findByRequest(1L)).thenReturn(Collections.emptyList());
 
@@ -104,7 +108,7 @@ class ItemRequestServiceTest {
     void getRequest_shouldThrowException_whenNotFound() {
         User user = new User(1L, "User", "user@email.com");
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(entityCache.userExists(1L)).thenReturn(true);
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
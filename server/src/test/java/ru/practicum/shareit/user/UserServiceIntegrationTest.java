@@ -1,24 +1,45 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.EntityCache;
+import ru.practicum.shareit.common.EntityCacheConfig;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.SearchMode;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.LocalDateTime;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Import(UserServiceImpl.class)
+@Import({UserServiceImpl.class, EntityCache.class, EntityCacheConfig.class})
 class UserServiceIntegrationTest {
     private final UserService userService;
     private final TestEntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
+    private final ItemRequestRepository itemRequestRepository;
 
     @Test
     void createUser_shouldCreateUser() {
@@ -46,4 +67,52 @@ class UserServiceIntegrationTest {
         assertThat(updated.getName(), equalTo("Updated Name"));
         assertThat(updated.getEmail(), equalTo("test@email.com"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deleteUser_shouldEvictUserAndCascadedItemsFromCaches() {
+        User owner = userRepository.save(new User(null, "Owner", "cached-owner@email.com"));
+        Item item = itemRepository.save(new Item(null, "Drill", "Powerful drill", true, owner.getId(), null));
+        Cache cache = entityManagerFactory.getCache();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        assertThat(entityCache.userExists(owner.getId()), is(true));
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+        statistics.clear();
+
+        assertThat(entityCache.userExists(owner.getId()), is(true));
+        assertThat(userRepository.findById(owner.getId()).isPresent(), is(true));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(cache.contains(Item.class, item.getId()), is(true));
+
+        userService.deleteUser(owner.getId());
+
+        assertThat(cache.contains(User.class, owner.getId()), is(false));
+        assertThat(cache.contains(Item.class, item.getId()), is(false));
+        assertThat(entityCache.userExists(owner.getId()), is(false));
+        assertThat(itemRepository.findById(item.getId()).isPresent(), is(false));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deleteUser_shouldDropItemsCreatedForUserRequestsFromSearchIndex() {
+        User requester = userRepository.save(new User(null, "Requester", "index-requester@email.com"));
+        User owner = userRepository.save(new User(null, "Owner", "index-owner@email.com"));
+        ItemRequest request = itemRequestRepository.save(
+                new ItemRequest(null, "Need a saw", requester, LocalDateTime.now()));
+        Item requested = itemRepository.save(new Item(null, "Saw", "Saw for request", true, owner.getId(),
+                request.getId()));
+        Item own = itemRepository.save(new Item(null, "Saw", "Owner's own saw", true, owner.getId(), null));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, SearchMode.MEMORY);
+        index.rebuild();
+        assertThat(index.search("saw", 0, 10), hasSize(2));
+
+        userService.deleteUser(requester.getId());
+        index.onUserDeleted(new UserDeletedEvent(requester.getId()));
+
+        // вещь другого владельца удалена каскадом по request_id
+        assertThat(itemRepository.findById(requested.getId()).isPresent(), is(false));
+        assertThat(index.search("saw", 0, 10), contains(hasProperty("id", equalTo(own.getId()))));
+    }
+}